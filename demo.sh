@@ -33,7 +33,7 @@ send_request() {
     echo -e "${YELLOW}▶ $description${NC}"
     echo -e "  Request: ${CYAN}$request${NC}"
 
-    response=$(echo "$request" | java --enable-preview -jar "$JAR_PATH" 2>/dev/null | head -1)
+    response=$(echo "$request" | java --enable-preview --add-modules jdk.incubator.vector -jar "$JAR_PATH" 2>/dev/null | head -1)
 
     # Pretty print JSON if jq is available
     if command -v jq &> /dev/null; then
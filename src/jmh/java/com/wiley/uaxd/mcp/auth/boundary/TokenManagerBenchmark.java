@@ -0,0 +1,44 @@
+package com.wiley.uaxd.mcp.auth.boundary;
+
+import com.wiley.uaxd.mcp.auth.control.OAuthClient;
+import com.wiley.uaxd.mcp.auth.control.WppAuthClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenManager on the cached path; the auth client is stubbed so no network is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenManagerBenchmark {
+
+    TokenManager tokenManager;
+
+    @Setup
+    public void setup() {
+        WppAuthClient stub = new WppAuthClient() {
+            @Override
+            public String authenticate() {
+                return "bench-token";
+            }
+        };
+        tokenManager = new TokenManager(stub, new OAuthClient());
+        tokenManager.getWppToken();
+    }
+
+    @Benchmark
+    public String getWppTokenCached() {
+        return tokenManager.getWppToken();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String getWppTokenCachedContended() {
+        return tokenManager.getWppToken();
+    }
+}
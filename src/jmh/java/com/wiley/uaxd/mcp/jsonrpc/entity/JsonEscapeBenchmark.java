@@ -0,0 +1,79 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String escaping and scanning: the vector and scalar kernels, the writer,
+ * and the replace-chain escapeJson the writer replaced as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEscapeBenchmark {
+
+    @Param({"64", "4096", "262144"})
+    int length;
+
+    /** plain: nothing to escape; json: embedded upstream JSON with quotes everywhere */
+    @Param({"plain", "json"})
+    String content;
+
+    String text;
+    byte[] utf8;
+    final JsonEscape.ScalarScanner scalar = new JsonEscape.ScalarScanner();
+
+    @Setup
+    public void setup() {
+        text = "plain".equals(content) ? JsonPayloads.plainText(length) : JsonPayloads.upstreamJson(length).substring(0, length);
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int indexOfEscape() {
+        return scan(utf8, false);
+    }
+
+    @Benchmark
+    public int indexOfEscapeScalar() {
+        return scan(utf8, true);
+    }
+
+    @Benchmark
+    public int writeString() {
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            writer.value(text);
+            return writer.size();
+        }
+    }
+
+    @Benchmark
+    public int legacyReplaceChain() {
+        return text.replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n")
+            .replace("\r", "\\r")
+            .replace("\t", "\\t")
+            .getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private int scan(byte[] bytes, boolean scalarOnly) {
+        int hits = 0;
+        int from = 0;
+        while (from < bytes.length) {
+            int next = scalarOnly
+                ? scalar.indexOfEscape(bytes, from, bytes.length)
+                : JsonEscape.indexOfEscape(bytes, from, bytes.length);
+            if (next < bytes.length) {
+                hits++;
+            }
+            from = next + 1;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,56 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonParser across payload sizes and nesting depths, for full parses and envelope-only parses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    /** Number of article objects in params.arguments */
+    @Param({"1", "100", "1000"})
+    int articles;
+
+    /** Extra nesting levels wrapped around each article */
+    @Param({"1", "16"})
+    int depth;
+
+    byte[] request;
+    String requestString;
+
+    @Setup
+    public void setup() {
+        requestString = JsonPayloads.toolCall(articles, depth);
+        request = requestString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseObjectBytes() {
+        return JsonParser.parseObject(request, 0, request.length);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseObjectString() {
+        return JsonParser.parseObject(requestString);
+    }
+
+    @Benchmark
+    public JsonRPCEnvelope parseEnvelope() {
+        return JsonParser.parseEnvelope(request, 0, request.length);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseEnvelopeAndParams() {
+        return JsonParser.parseEnvelope(request, 0, request.length).params().asMap();
+    }
+}
@@ -0,0 +1,59 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+/**
+ * Synthetic MCP payloads shaped like real article results.
+ */
+final class JsonPayloads {
+
+    private JsonPayloads() {
+    }
+
+    /**
+     * A tools/call request whose arguments carry the given number of nested article objects.
+     */
+    static String toolCall(int articles, int depth) {
+        StringBuilder sb = new StringBuilder(articles * 256 + 128);
+        sb.append("{\"jsonrpc\":\"2.0\",\"id\":42,\"method\":\"tools/call\",\"params\":{\"name\":\"GetUAXDArticles\",\"arguments\":{\"articles\":[");
+        for (int i = 0; i < articles; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"wrap\":".repeat(depth - 1));
+            sb.append(article(i));
+            sb.append("}".repeat(depth - 1));
+        }
+        sb.append("]}}}");
+        return sb.toString();
+    }
+
+    static String article(int i) {
+        return "{\"id\":" + (100000 + i)
+            + ",\"doi\":\"10.1002/example." + i + "\""
+            + ",\"title\":\"On the \\\"performance\\\" of article " + i + " \\u2013 a study\""
+            + ",\"authors\":[\"A. Author\",\"B. Author\"]"
+            + ",\"published\":true,\"score\":" + (i * 0.5)
+            + ",\"abstract\":\"Line one\\nLine two\\twith tab and unicode éè text.\"}";
+    }
+
+    /**
+     * Upstream JSON of the given approximate size, as embedded in a tool result text.
+     */
+    static String upstreamJson(int bytes) {
+        StringBuilder sb = new StringBuilder(bytes + 512).append('[');
+        for (int i = 0; sb.length() < bytes; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(article(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Plain prose with no characters that need escaping.
+     */
+    static String plainText(int bytes) {
+        String sentence = "The quick brown fox jumps over the lazy dog and keeps running. ";
+        return sentence.repeat(bytes / sentence.length() + 1).substring(0, bytes);
+    }
+}
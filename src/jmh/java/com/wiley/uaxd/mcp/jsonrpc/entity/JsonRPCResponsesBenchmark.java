@@ -0,0 +1,50 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import com.wiley.uaxd.mcp.tools.entity.ToolResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding JSON-RPC envelopes into a pooled writer, the way the transports send them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonRPCResponsesBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int resultBytes;
+
+    ToolResult toolResult;
+
+    @Setup
+    public void setup() {
+        toolResult = new ToolResult(JsonPayloads.upstreamJson(resultBytes), false);
+    }
+
+    @Benchmark
+    public int successEmpty() {
+        return encode(JsonRPCResponses.success(7, "{}"));
+    }
+
+    @Benchmark
+    public int successToolResult() {
+        return encode(JsonRPCResponses.success(7, toolResult));
+    }
+
+    @Benchmark
+    public int error() {
+        return encode(JsonRPCResponses.error("req-7", -32601, "Method not found: tools/unknown"));
+    }
+
+    private static int encode(JsonWritable message) {
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            message.writeTo(writer);
+            return writer.size();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.wiley.uaxd.mcp.log.boundary;
+
+import com.wiley.uaxd.mcp.log.entity.LogLevel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of Log.info with the level enabled and disabled.
+ * The benchmark profile points uaxd.log.file at target/jmh.log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    @Param({"INFO", "WARN"})
+    String level;
+
+    String toolName = "GetUAXDArticles";
+
+    @Setup
+    public void setup() {
+        Log.setLevel(LogLevel.valueOf(level));
+    }
+
+    @TearDown
+    public void tearDown() {
+        Log.setLevel(LogLevel.INFO);
+    }
+
+    @Benchmark
+    public void info() {
+        Log.info("Handling tools/call request");
+    }
+
+    @Benchmark
+    public void infoConcatenated() {
+        Log.info("Executing tool: " + toolName);
+    }
+
+    @Benchmark
+    public void infoSupplier() {
+        Log.info(() -> "Executing tool: " + toolName);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoContended() {
+        Log.info("Handling tools/call request");
+    }
+}
@@ -0,0 +1,41 @@
+package com.wiley.uaxd.mcp.reliability.control;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker on the closed (healthy) path with many request threads sharing one breaker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class CircuitBreakerBenchmark {
+
+    CircuitBreaker breaker;
+
+    @Setup
+    public void setup() {
+        breaker = new CircuitBreaker("bench");
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return breaker.isAvailable();
+    }
+
+    @Benchmark
+    public void recordSuccess() {
+        breaker.recordSuccess();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean isAvailableUncontended() {
+        return breaker.isAvailable();
+    }
+}
@@ -0,0 +1,62 @@
+package com.wiley.uaxd.mcp.server.boundary;
+
+import com.wiley.uaxd.mcp.App;
+import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of a ping over keep-alive connections against each HTTP engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class McpHttpServerBenchmark {
+
+    static final int PORT = 18479;
+
+    @Param({"jdk", "nio"})
+    String engine;
+
+    McpHttpServer server;
+    HttpClient client;
+    HttpRequest ping;
+
+    @Setup
+    public void setup() throws Exception {
+        ServerConfig config = ServerConfig.fromArgs(new String[]{"--port=" + PORT, "--engine=" + engine});
+        ServiceRegistry registry = new ServiceRegistry();
+        server = new McpHttpServer(config, registry, App.dispatcher(registry));
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ping = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/mcp"))
+            .POST(HttpRequest.BodyPublishers.ofString("{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"ping\"}"))
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public String ping() throws Exception {
+        return client.send(ping, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String pingConcurrent() throws Exception {
+        return client.send(ping, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -1,14 +1,17 @@
 package com.wiley.uaxd.mcp;
 
-import com.wiley.uaxd.mcp.base.boundary.CoreSTDIOProtocol;
+import com.wiley.uaxd.mcp.base.boundary.CoreProtocol;
 import com.wiley.uaxd.mcp.base.control.MessageSender;
 import com.wiley.uaxd.mcp.log.boundary.Log;
 import com.wiley.uaxd.mcp.router.boundary.FrontDoor;
+import com.wiley.uaxd.mcp.router.control.Dispatcher;
 import com.wiley.uaxd.mcp.server.boundary.McpHttpServer;
 import com.wiley.uaxd.mcp.server.entity.ServerConfig;
 import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import com.wiley.uaxd.mcp.reliability.control.AdmissionController;
 import com.wiley.uaxd.mcp.reliability.control.HealthChecker;
-import com.wiley.uaxd.mcp.tools.boundary.ToolsSTDIOProtocol;
+import com.wiley.uaxd.mcp.tools.boundary.ToolsProtocol;
+import com.wiley.uaxd.mcp.tools.control.ToolRegistry;
 
 /**
  * UAXD MCP Server entry point.
@@ -26,7 +29,7 @@ public interface App {
         if (httpMode) {
             startHttpServer(args);
         } else {
-            startStdioServer();
+            startStdioServer(args);
         }
     }
 
@@ -47,13 +50,14 @@ public interface App {
             ServiceRegistry registry = new ServiceRegistry();
             HealthChecker healthChecker = new HealthChecker(registry);
 
-            McpHttpServer server = new McpHttpServer(config, registry);
+            McpHttpServer server = new McpHttpServer(config, registry, dispatcher(registry, config));
 
             // Shutdown hook
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 Log.info("Shutdown signal received");
                 healthChecker.stop();
                 server.stop();
+                Log.shutdown();
             }));
 
             // Start health checker
@@ -71,21 +75,43 @@ public interface App {
         }
     }
 
-    private static void startStdioServer() {
+    /**
+     * The method table shared by both transports: core protocol (initialize, ping) and tools.
+     */
+    static Dispatcher dispatcher(ServiceRegistry registry) {
+        return dispatcher(registry, ServerConfig.stdioFromArgs(new String[0]));
+    }
+
+    static Dispatcher dispatcher(ServiceRegistry registry, ServerConfig config) {
+        AdmissionController admission = new AdmissionController(
+            config.concurrencyLimits(), config.admissionQueue(), config.admissionWait());
+        Dispatcher dispatcher = new Dispatcher(config.methodTimeouts(), admission);
+        dispatcher.addHandler(new CoreProtocol(dispatcher::capabilities));
+        dispatcher.addHandler(new ToolsProtocol(ToolRegistry.load(), registry));
+        return dispatcher;
+    }
+
+    private static void startStdioServer(String[] args) {
         Log.info("Starting in STDIO mode...");
 
+        // Same method table as HTTP; circuit breakers recover through their half-open state
+        ServerConfig config = ServerConfig.stdioFromArgs(args);
         MessageSender sender = new MessageSender();
-        FrontDoor frontDoor = new FrontDoor(sender);
-
-        // Core protocol handler (initialize, ping)
-        CoreSTDIOProtocol coreProtocol = new CoreSTDIOProtocol(sender, frontDoor::capabilities);
-        frontDoor.addHandler(coreProtocol);
+        FrontDoor frontDoor = new FrontDoor(sender, dispatcher(new ServiceRegistry(), config),
+            config.maxInFlight(), config.maxMessageBytes());
 
-        // Tools handler
-        ToolsSTDIOProtocol toolsProtocol = new ToolsSTDIOProtocol(sender);
-        frontDoor.addHandler(toolsProtocol);
+        // Shutdown hook, for a signal before stdin closes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Log.info("Shutdown signal received");
+            sender.close();
+            Log.shutdown();
+        }));
 
         // Start the server (blocks on stdin)
         frontDoor.start();
+
+        // Write pending responses, then flush pending log lines before the JVM exits
+        sender.close();
+        Log.shutdown();
     }
 }
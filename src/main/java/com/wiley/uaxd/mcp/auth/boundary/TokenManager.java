@@ -3,13 +3,18 @@ package com.wiley.uaxd.mcp.auth.boundary;
 import com.wiley.uaxd.mcp.auth.control.OAuthClient;
 import com.wiley.uaxd.mcp.auth.control.WppAuthClient;
 import com.wiley.uaxd.mcp.auth.entity.TokenCache;
+import com.wiley.uaxd.mcp.http.entity.Deadline;
 import com.wiley.uaxd.mcp.log.boundary.Log;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Central token management with caching and auto-refresh.
+ * Waiting for a refresh lock is interruptible and bounded by the request's {@link Deadline},
+ * so a cancelled or expiring request does not queue behind a slow refresh.
  */
 public class TokenManager {
 
@@ -54,7 +59,7 @@ public class TokenManager {
             return cached.token();
         }
 
-        wppLock.lock();
+        acquire(wppLock);
         try {
             // Double-check after acquiring lock
             cached = tokenCaches.get(WPP_CACHE_KEY);
@@ -75,7 +80,7 @@ public class TokenManager {
      * Forces refresh of WPP token (call on 401).
      */
     public String refreshWppToken() {
-        wppLock.lock();
+        acquire(wppLock);
         try {
             Log.info("Force refreshing WPP token");
             tokenCaches.remove(WPP_CACHE_KEY);
@@ -95,12 +100,12 @@ public class TokenManager {
 
         TokenCache cached = tokenCaches.get(cacheKey);
         if (cached != null && !cached.shouldRefresh()) {
-            Log.info("Using cached OAuth token for " + clientId);
+            Log.info(() -> "Using cached OAuth token for " + clientId);
             return cached.token();
         }
 
         ReentrantLock lock = oauthLocks.computeIfAbsent(cacheKey, k -> new ReentrantLock());
-        lock.lock();
+        acquire(lock);
         try {
             // Double-check after acquiring lock
             cached = tokenCaches.get(cacheKey);
@@ -108,7 +113,7 @@ public class TokenManager {
                 return cached.token();
             }
 
-            Log.info("Refreshing OAuth token for " + clientId);
+            Log.info(() -> "Refreshing OAuth token for " + clientId);
             OAuthClient.OAuthToken result = oAuthClient.getToken(tokenUrl, clientId, clientSecret);
             tokenCaches.put(cacheKey, TokenCache.of(result.accessToken(), result.expiresIn(), cacheKey));
             return result.accessToken();
@@ -124,9 +129,9 @@ public class TokenManager {
         String cacheKey = "oauth:" + clientId + "@" + tokenUrl;
 
         ReentrantLock lock = oauthLocks.computeIfAbsent(cacheKey, k -> new ReentrantLock());
-        lock.lock();
+        acquire(lock);
         try {
-            Log.info("Force refreshing OAuth token for " + clientId);
+            Log.info(() -> "Force refreshing OAuth token for " + clientId);
             tokenCaches.remove(cacheKey);
             OAuthClient.OAuthToken result = oAuthClient.getToken(tokenUrl, clientId, clientSecret);
             tokenCaches.put(cacheKey, TokenCache.of(result.accessToken(), result.expiresIn(), cacheKey));
@@ -143,4 +148,18 @@ public class TokenManager {
         tokenCaches.clear();
         Log.info("All cached tokens cleared");
     }
+
+    private static void acquire(ReentrantLock lock) {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline.isNone()) {
+                lock.lockInterruptibly();
+            } else if (!lock.tryLock(deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                throw deadline.exceeded();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for token refresh");
+        }
+    }
 }
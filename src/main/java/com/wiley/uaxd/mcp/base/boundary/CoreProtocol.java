@@ -0,0 +1,91 @@
+package com.wiley.uaxd.mcp.base.boundary;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.EncodedResult;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.router.boundary.MethodHandler;
+import com.wiley.uaxd.mcp.router.boundary.RequestHandler;
+import com.wiley.uaxd.mcp.router.entity.Capability;
+import com.wiley.uaxd.mcp.router.entity.MCPRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Handles MCP initialization protocol.
+ * The initialize result only depends on the registered capabilities, so it is encoded
+ * once, on first use after all handlers are registered.
+ */
+public class CoreProtocol implements RequestHandler {
+
+    private static final String PROTOCOL_VERSION = "2024-11-05";
+    private static final String SERVER_NAME = "uaxd-mcp";
+    private static final String SERVER_VERSION = "1.0.0";
+
+    private final Supplier<List<Capability>> capabilitiesSupplier;
+    private volatile boolean initialized = false;
+    private volatile EncodedResult initializeResult;
+
+    public CoreProtocol(Supplier<List<Capability>> capabilitiesSupplier) {
+        this.capabilitiesSupplier = capabilitiesSupplier;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public Map<String, MethodHandler> methods() {
+        return Map.of(
+            "initialize", this::handleInitialize,
+            "initialized", this::handleInitialized,
+            "notifications/initialized", this::handleInitialized,
+            "ping", this::handlePing
+        );
+    }
+
+    private JsonWritable handleInitialize(MCPRequest request, Consumer<JsonWritable> notifications) {
+        Log.info("Handling initialize request");
+        return initializeResult().response(request.id());
+    }
+
+    private EncodedResult initializeResult() {
+        EncodedResult result = initializeResult;
+        if (result == null) {
+            List<Capability> caps = capabilitiesSupplier.get();
+            result = EncodedResult.of(writer -> {
+                writer.beginObject()
+                    .name("protocolVersion").value(PROTOCOL_VERSION)
+                    .name("capabilities");
+                Capability.writeAll(writer, caps);
+                writer.name("serverInfo").beginObject()
+                        .name("name").value(SERVER_NAME)
+                        .name("version").value(SERVER_VERSION)
+                    .endObject()
+                    .endObject();
+            });
+            initializeResult = result;
+        }
+        return result;
+    }
+
+    private JsonWritable handleInitialized(MCPRequest request, Consumer<JsonWritable> notifications) {
+        Log.info("Client initialized notification received");
+        initialized = true;
+        // No response for notifications
+        return null;
+    }
+
+    private JsonWritable handlePing(MCPRequest request, Consumer<JsonWritable> notifications) {
+        return JsonRPCResponses.success(request.id(), "{}");
+    }
+
+    @Override
+    public Optional<Capability> capability() {
+        return Optional.empty();
+    }
+}
@@ -1,30 +1,66 @@
 package com.wiley.uaxd.mcp.base.control;
 
 import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
 import com.wiley.uaxd.mcp.log.boundary.Log;
 
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
 
 /**
  * Sends JSON-RPC messages to stdout.
+ * Each message is encoded once into a pooled UTF-8 buffer and handed to the
+ * {@link StdoutChannel} as a single line; requests are handled concurrently, so lines
+ * are written whole and responses may go out in any order without interleaving.
  */
 public class MessageSender {
-    private final PrintWriter out;
+    private final StdoutChannel out;
 
     public MessageSender() {
-        this.out = new PrintWriter(System.out, true);
+        this(new StdoutChannel());
+    }
+
+    public MessageSender(OutputStream out) {
+        this(new StdoutChannel(Channels.newChannel(out), StdoutChannel.DEFAULT_CAPACITY));
+    }
+
+    public MessageSender(StdoutChannel out) {
+        this.out = out;
     }
 
     public void send(String json) {
-        Log.response(json);
-        out.println(json);
-        out.flush();
+        send(writer -> writer.rawValue(json));
+    }
+
+    public void send(JsonWritable message) {
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            message.writeTo(writer);
+            Log.response(null, writer.asByteBuffer());
+            writer.newline();
+            out.writeLine(writer.asByteBuffer());
+        } catch (IOException e) {
+            Log.error("Failed to write message to stdout", e);
+        }
+    }
+
+    /**
+     * Sends the responses of a batch as one array line.
+     */
+    public void sendBatch(List<JsonWritable> responses) {
+        send(JsonRPCResponses.batch(responses));
     }
 
     public void sendSuccess(Object id, String resultJson) {
         send(JsonRPCResponses.success(id, resultJson));
     }
 
+    public void sendSuccess(Object id, JsonWritable result) {
+        send(JsonRPCResponses.success(id, result));
+    }
+
     public void sendError(Object id, int code, String message) {
         send(JsonRPCResponses.error(id, code, message));
     }
@@ -48,4 +84,11 @@ public class MessageSender {
     public void sendInternalError(Object id, String message) {
         sendError(id, -32603, "Internal error: " + message);
     }
+
+    /**
+     * Writes the messages already sent and stops the stdout writer; later messages are dropped.
+     */
+    public void close() {
+        out.close();
+    }
 }
@@ -0,0 +1,131 @@
+package com.wiley.uaxd.mcp.base.control;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Splits stdin into newline-delimited messages without decoding it: each frame is the
+ * raw UTF-8 bytes of one line, which the JSON parser reads as UTF-8 regardless of the
+ * platform charset. The read buffer is reused; only a line spread over several reads is
+ * collected in a second buffer. A line longer than the limit is skipped up to its newline
+ * without being held in memory, and reported by its length.
+ */
+public final class StdinFrameReader {
+
+    static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final int maxFrameBytes;
+    private final LongConsumer oversized;
+    private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private byte[] partial = new byte[READ_BUFFER_SIZE];
+    private int partialLength;
+    /** Length of the oversized line being skipped, or -1 */
+    private long skipped = -1;
+
+    public StdinFrameReader(int maxFrameBytes, LongConsumer oversized) {
+        this(new FileInputStream(FileDescriptor.in), maxFrameBytes, oversized);
+    }
+
+    public StdinFrameReader(InputStream in, int maxFrameBytes, LongConsumer oversized) {
+        this.in = in;
+        this.maxFrameBytes = maxFrameBytes;
+        this.oversized = oversized;
+    }
+
+    /**
+     * Returns the next non-blank line without its line terminator, or null at end of input.
+     * The frame owns its bytes, so it may be processed on another thread.
+     */
+    public ByteBuffer next() throws IOException {
+        while (true) {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    ByteBuffer frame = complete(position, i);
+                    position = i + 1;
+                    if (frame != null) {
+                        return frame;
+                    }
+                }
+            }
+            collect(position, limit);
+            position = 0;
+            limit = 0;
+
+            int read = in.read(buffer);
+            if (read == -1) {
+                return partialLength > 0 || skipped >= 0 ? complete(0, 0) : null;
+            }
+            limit = read;
+        }
+    }
+
+    /**
+     * Keeps the tail of the read buffer that does not end a line yet.
+     */
+    private void collect(int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        if (skipped >= 0) {
+            skipped += length;
+            return;
+        }
+        if (partialLength + length > maxFrameBytes) {
+            skipped = partialLength + length;
+            partialLength = 0;
+            return;
+        }
+        if (partialLength + length > partial.length) {
+            partial = Arrays.copyOf(partial, Math.min(maxFrameBytes, Math.max(partial.length * 2, partialLength + length)));
+        }
+        System.arraycopy(buffer, from, partial, partialLength, length);
+        partialLength += length;
+    }
+
+    /**
+     * Ends the line whose last bytes are {@code buffer[from, to)}; null if it was blank or too long.
+     */
+    private ByteBuffer complete(int from, int to) {
+        long length = (skipped >= 0 ? skipped : partialLength) + (to - from);
+        if (skipped >= 0 || length > maxFrameBytes) {
+            skipped = -1;
+            partialLength = 0;
+            oversized.accept(length);
+            return null;
+        }
+
+        byte[] frame = new byte[(int) length];
+        System.arraycopy(partial, 0, frame, 0, partialLength);
+        System.arraycopy(buffer, from, frame, partialLength, to - from);
+        partialLength = 0;
+        if (partial.length > READ_BUFFER_SIZE) {
+            partial = new byte[READ_BUFFER_SIZE];
+        }
+
+        int end = frame.length;
+        if (end > 0 && frame[end - 1] == '\r') {
+            end--;
+        }
+        return isBlank(frame, end) ? null : ByteBuffer.wrap(frame, 0, end);
+    }
+
+    private static boolean isBlank(byte[] bytes, int end) {
+        for (int i = 0; i < end; i++) {
+            byte b = bytes[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
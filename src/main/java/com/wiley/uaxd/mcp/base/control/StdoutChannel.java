@@ -0,0 +1,198 @@
+package com.wiley.uaxd.mcp.base.control;
+
+import com.wiley.uaxd.mcp.log.boundary.Log;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Line-oriented writer for stdout that writes UTF-8 bytes straight to file descriptor 1.
+ * <p>
+ * Senders copy their complete line into a shared buffer; a single writer thread swaps it
+ * with a second buffer and writes everything collected so far in one call, so lines sent
+ * concurrently are coalesced into large writes. A line is never split, and lines larger
+ * than the buffer are written on their own. Every sender waits until its line is written:
+ * when the client reads slowly, the buffer fills and senders block instead of queueing
+ * responses on the heap.
+ * <p>
+ * Only the writer thread touches the channel. A {@code FileChannel} is closed when a thread
+ * blocked in it is interrupted, and request threads are interrupted on cancellation.
+ * {@link #close()} writes the lines already accepted, stops the writer thread and then
+ * closes the channel.
+ */
+public final class StdoutChannel {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+    /** How long close waits for accepted lines to be written, e.g. to a client that stopped reading */
+    static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WritableByteChannel channel;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition progressed = lock.newCondition();
+    private final Thread writer;
+
+    private ByteBuffer filling;
+    private ByteBuffer draining;
+    private ByteBuffer oversized;
+    /** Write round the lines currently being collected belong to */
+    private long round;
+    /** Number of rounds written completely */
+    private long completed;
+    private IOException failure;
+    private boolean closed;
+
+    public StdoutChannel() {
+        this(new FileOutputStream(FileDescriptor.out).getChannel(), DEFAULT_CAPACITY);
+    }
+
+    public StdoutChannel(WritableByteChannel channel, int capacity) {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.filling = ByteBuffer.allocateDirect(capacity);
+        this.draining = ByteBuffer.allocateDirect(capacity);
+        this.writer = Thread.ofPlatform().name("stdout-writer").daemon().start(this::drain);
+    }
+
+    /**
+     * Writes one complete line, newline included, and returns once it is written.
+     * The bytes are the remaining ones of the buffer; they must stay unchanged until this returns.
+     */
+    public void writeLine(ByteBuffer line) throws IOException {
+        lock.lock();
+        try {
+            if (line.remaining() > capacity) {
+                while (oversized != null && failure == null && !closed) {
+                    progressed.awaitUninterruptibly();
+                }
+                checkAccepting();
+                oversized = line;
+            } else {
+                while (filling.remaining() < line.remaining() && failure == null && !closed) {
+                    progressed.awaitUninterruptibly();
+                }
+                checkAccepting();
+                filling.put(line);
+            }
+            long mine = round;
+            hasWork.signal();
+            while (completed <= mine && failure == null) {
+                progressed.awaitUninterruptibly();
+            }
+            checkOpen();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the lines already accepted and stops the writer thread; later lines are refused.
+     * Waits at most {@link #CLOSE_TIMEOUT}, then closes the channel under a writer that is still blocked.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            hasWork.signal();
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Log.error("Failed to close stdout", e);
+        }
+    }
+
+    private void checkAccepting() throws IOException {
+        checkOpen();
+        if (closed) {
+            throw new IOException("stdout is closed");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("stdout is no longer writable", failure);
+        }
+    }
+
+    /**
+     * Writer thread: takes whatever was collected, writes it, then reports the round as done.
+     * Stops once closed and nothing is left to write.
+     */
+    private void drain() {
+        while (true) {
+            ByteBuffer batch;
+            ByteBuffer large;
+            lock.lock();
+            try {
+                while (filling.position() == 0 && oversized == null && !closed) {
+                    hasWork.awaitUninterruptibly();
+                }
+                if (filling.position() == 0 && oversized == null) {
+                    return;
+                }
+                batch = filling;
+                filling = draining;
+                draining = batch;
+                large = oversized;
+                oversized = null;
+                round++;
+                progressed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                writeFully(batch);
+                if (large != null) {
+                    writeFully(large);
+                }
+            } catch (IOException e) {
+                error = e;
+                Log.error("Failed to write to stdout", e);
+            } finally {
+                batch.clear();
+            }
+
+            lock.lock();
+            try {
+                completed++;
+                if (error != null) {
+                    failure = error;
+                }
+                progressed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
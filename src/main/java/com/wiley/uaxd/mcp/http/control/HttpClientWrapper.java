@@ -1,51 +1,89 @@
 package com.wiley.uaxd.mcp.http.control;
 
+import com.wiley.uaxd.mcp.http.entity.Deadline;
 import com.wiley.uaxd.mcp.log.boundary.Log;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * HTTP client wrapper with common configurations.
+ * Requests are sent asynchronously and awaited; interrupting the waiting
+ * thread aborts the exchange, which is how a cancelled tool call stops its upstream work.
+ * Within a request's {@link Deadline} the exchange gets only the time that is left.
  */
 public class HttpClientWrapper {
 
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
     private final HttpClient client;
 
     public HttpClientWrapper() {
         this.client = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
+            .connectTimeout(CONNECT_TIMEOUT)
             .build();
     }
 
+    /**
+     * Callbacks of an exchange in flight; invoked on the client's threads.
+     */
+    public interface Listener {
+        Listener NONE = new Listener() {};
+
+        /** Response headers arrived; contentLength is -1 when unknown. */
+        default void connected(int statusCode, long contentLength) {}
+
+        /** Body bytes received so far. */
+        default void received(long bytes, long contentLength) {}
+    }
+
     public HttpResponse<String> get(String url, String... headers) throws Exception {
+        return get(url, Listener.NONE, headers);
+    }
+
+    public HttpResponse<String> get(String url, Listener listener, String... headers) throws Exception {
         var builder = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(60))
+            .timeout(Deadline.current().cap(REQUEST_TIMEOUT))
             .GET();
 
         addHeaders(builder, headers);
         var request = builder.build();
 
-        Log.info("HTTP GET: " + url);
-        return client.send(request, HttpResponse.BodyHandlers.ofString());
+        Log.info(() -> "HTTP GET: " + url);
+        return send(request, listener);
     }
 
     public HttpResponse<String> post(String url, String body, String contentType, String... headers) throws Exception {
+        return post(url, body, contentType, Listener.NONE, headers);
+    }
+
+    public HttpResponse<String> post(String url, String body, String contentType, Listener listener, String... headers) throws Exception {
         var builder = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(60))
+            .timeout(Deadline.current().cap(REQUEST_TIMEOUT))
             .header("Content-Type", contentType)
             .POST(HttpRequest.BodyPublishers.ofString(body));
 
         addHeaders(builder, headers);
         var request = builder.build();
 
-        Log.info("HTTP POST: " + url);
-        return client.send(request, HttpResponse.BodyHandlers.ofString());
+        Log.info(() -> "HTTP POST: " + url);
+        return send(request, listener);
     }
 
     public HttpResponse<String> postForm(String url, String formData, String... headers) throws Exception {
@@ -56,6 +94,84 @@ public class HttpClientWrapper {
         return post(url, jsonBody, "application/json", headers);
     }
 
+    private HttpResponse<String> send(HttpRequest request, Listener listener) throws Exception {
+        HttpResponse.BodyHandler<String> handler = listener == Listener.NONE
+            ? HttpResponse.BodyHandlers.ofString()
+            : reporting(listener);
+        Deadline deadline = Deadline.current();
+        CompletableFuture<HttpResponse<String>> pending = client.sendAsync(request, handler);
+        try {
+            // The request timeout only covers the headers; the deadline also bounds the body
+            return deadline.isNone() ? pending.get() : pending.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Log.info(() -> "HTTP request aborted: " + request.uri());
+            throw e;
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            Log.info(() -> "HTTP request out of time: " + request.uri());
+            throw deadline.exceeded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpTimeoutException && deadline.isExpired()) {
+                throw deadline.exceeded();
+            }
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static HttpResponse.BodyHandler<String> reporting(Listener listener) {
+        return info -> {
+            long contentLength = info.headers().firstValueAsLong("content-length").orElse(-1);
+            listener.connected(info.statusCode(), contentLength);
+            return new CountingSubscriber(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), listener, contentLength);
+        };
+    }
+
+    /**
+     * Passes the body through to the string subscriber while counting the bytes.
+     */
+    private static final class CountingSubscriber implements HttpResponse.BodySubscriber<String> {
+        private final HttpResponse.BodySubscriber<String> delegate;
+        private final Listener listener;
+        private final long contentLength;
+        private long received;
+
+        CountingSubscriber(HttpResponse.BodySubscriber<String> delegate, Listener listener, long contentLength) {
+            this.delegate = delegate;
+            this.listener = listener;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                received += buffer.remaining();
+            }
+            listener.received(received, contentLength);
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+
     private void addHeaders(HttpRequest.Builder builder, String[] headers) {
         for (int i = 0; i < headers.length - 1; i += 2) {
             builder.header(headers[i], headers[i + 1]);
@@ -0,0 +1,111 @@
+package com.wiley.uaxd.mcp.http.entity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which a request must be answered. Every hop on the way to an upstream
+ * (token refresh, HTTP exchange) gets only the time that is left, not a fixed timeout of its own.
+ * The deadline of the running request is bound to the thread and read with {@link #current()}.
+ */
+public final class Deadline {
+
+    public static final Deadline NONE = new Deadline(0, null);
+
+    private static final ScopedValue<Deadline> CURRENT = ScopedValue.newInstance();
+
+    private final long expiresAt;
+    private final Duration timeout;
+
+    private Deadline(long expiresAt, Duration timeout) {
+        this.expiresAt = expiresAt;
+        this.timeout = timeout;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), timeout);
+    }
+
+    /**
+     * Deadline for a request: the method's default, shortened by a client's {@code _meta.timeoutMs}.
+     * A client can ask for less time than the default, never for more.
+     */
+    public static Deadline of(Duration methodDefault, Map<String, Object> params) {
+        Duration timeout = methodDefault;
+        if (params != null && params.get("_meta") instanceof Map<?, ?> meta
+                && meta.get("timeoutMs") instanceof Number millis && millis.longValue() > 0) {
+            Duration requested = Duration.ofMillis(millis.longValue());
+            if (requested.compareTo(timeout) < 0) {
+                timeout = requested;
+            }
+        }
+        return after(timeout);
+    }
+
+    /**
+     * Deadline of the request running on this thread, or {@link #NONE}.
+     */
+    public static Deadline current() {
+        return CURRENT.isBound() ? CURRENT.get() : NONE;
+    }
+
+    /**
+     * Runs the action with the deadline bound and returns its result.
+     */
+    public static <T> T callWith(Deadline deadline, Supplier<T> action) {
+        return ScopedValue.where(CURRENT, deadline).call(action::get);
+    }
+
+    public boolean isNone() {
+        return timeout == null;
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    public long remainingNanos() {
+        return isNone() ? Long.MAX_VALUE : Math.max(0, expiresAt - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return !isNone() && expiresAt - System.nanoTime() <= 0;
+    }
+
+    /**
+     * The given hop timeout, shortened to the time left.
+     *
+     * @throws ExceededException if no time is left
+     */
+    public Duration cap(Duration hopTimeout) {
+        if (isNone()) {
+            return hopTimeout;
+        }
+        long remaining = remainingNanos();
+        if (remaining == 0) {
+            throw exceeded();
+        }
+        return remaining < hopTimeout.toNanos() ? Duration.ofNanos(remaining) : hopTimeout;
+    }
+
+    public ExceededException exceeded() {
+        return new ExceededException("Deadline of " + timeout.toMillis() + " ms exceeded");
+    }
+
+    @Override
+    public String toString() {
+        return isNone() ? "Deadline[none]"
+            : "Deadline[" + TimeUnit.NANOSECONDS.toMillis(remainingNanos()) + " ms left of " + timeout.toMillis() + " ms]";
+    }
+
+    /**
+     * Thrown by a hop that runs out of time.
+     */
+    public static final class ExceededException extends RuntimeException {
+        public ExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.wiley.uaxd.mcp.jsonrpc.control;
+
+import com.wiley.uaxd.mcp.log.boundary.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks requests that are being processed, keyed by JSON-RPC id within a scope, so that
+ * {@code notifications/cancelled} can interrupt the thread working on them. Ids are only
+ * unique per client, so the scope is the connection or session the request came in on,
+ * and a cancellation only reaches requests of its own scope.
+ */
+public final class InFlightRequests {
+
+    public static final String CANCELLED = "notifications/cancelled";
+
+    private final ConcurrentHashMap<Key, Request> requests = new ConcurrentHashMap<>();
+
+    private record Key(Object scope, Object id) {
+    }
+
+    /**
+     * Starts tracking the request on the current thread.
+     * Returns null if a request with the same id is already in flight in the scope.
+     */
+    public Request register(Object scope, Object id) {
+        Request request = new Request(new Key(scope, id), Thread.currentThread());
+        return requests.putIfAbsent(request.key, request) == null ? request : null;
+    }
+
+    /**
+     * Handles the params of a {@code notifications/cancelled} notification received in the scope.
+     */
+    public void cancel(Object scope, Map<String, Object> params) {
+        Object id = params != null ? params.get("requestId") : null;
+        if (id == null) {
+            Log.error("Cancellation without requestId");
+            return;
+        }
+        Request request = requests.get(new Key(scope, id));
+        if (request == null || !request.cancel()) {
+            Log.info(() -> "Cancellation for request " + id + " ignored, not in flight");
+            return;
+        }
+        Log.info(() -> "Request " + id + " cancelled: " + params.getOrDefault("reason", "no reason given"));
+    }
+
+    /**
+     * Stops tracking the request; must be called on the thread that registered it.
+     * Returns true if the request was cancelled, in which case no response is sent.
+     */
+    public boolean complete(Request request) {
+        requests.remove(request.key, request);
+        return request.complete();
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    public static final class Request {
+        private final Key key;
+        private final Thread thread;
+        private boolean done;
+        private boolean cancelled;
+
+        Request(Key key, Thread thread) {
+            this.key = key;
+            this.thread = thread;
+        }
+
+        synchronized boolean cancel() {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            thread.interrupt();
+            return true;
+        }
+
+        /**
+         * After this, no interrupt can arrive; a pending one is cleared so the
+         * thread can still write to its connection.
+         */
+        synchronized boolean complete() {
+            done = true;
+            if (cancelled) {
+                Thread.interrupted();
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.wiley.uaxd.mcp.jsonrpc.control;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCEnvelope;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Executes the entries of a JSON-RPC batch.
+ * tools/call entries run concurrently on virtual threads, everything else
+ * runs inline; responses are collected in request order.
+ */
+public interface JsonRPCBatch {
+
+    String TOOLS_CALL = "tools/call";
+
+    /**
+     * Runs every entry through the handler and returns the responses in request order.
+     * Notifications (a null response) are left out; entries that are not objects
+     * are answered with Invalid Request.
+     */
+    static List<JsonWritable> dispatch(List<JsonRPCEnvelope> entries, Function<JsonRPCEnvelope, JsonWritable> handler) {
+        List<Future<JsonWritable>> pending = new ArrayList<>(entries.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (JsonRPCEnvelope entry : entries) {
+                if (entry == null) {
+                    pending.add(CompletableFuture.completedFuture(JsonRPCResponses.error(null, -32600, "Invalid Request")));
+                } else if (TOOLS_CALL.equals(entry.method())) {
+                    pending.add(executor.submit(() -> handler.apply(entry)));
+                } else {
+                    pending.add(CompletableFuture.completedFuture(handler.apply(entry)));
+                }
+            }
+        }
+
+        List<JsonWritable> responses = new ArrayList<>(entries.size());
+        for (int i = 0; i < pending.size(); i++) {
+            JsonWritable response = result(pending.get(i), entries.get(i));
+            if (response != null) {
+                responses.add(response);
+            }
+        }
+        Log.info(() -> "Batch of " + entries.size() + " requests produced " + responses.size() + " responses");
+        return responses;
+    }
+
+    private static JsonWritable result(Future<JsonWritable> future, JsonRPCEnvelope entry) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return JsonRPCResponses.error(entry.id(), -32603, "Internal error: interrupted");
+        } catch (ExecutionException e) {
+            Log.error("Batch entry failed", e.getCause());
+            return entry.id() != null ? JsonRPCResponses.error(entry.id(), -32603, "Internal error: " + e.getCause().getMessage()) : null;
+        }
+    }
+}
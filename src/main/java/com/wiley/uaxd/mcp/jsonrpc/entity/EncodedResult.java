@@ -0,0 +1,72 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A result that is encoded once and reused; per request only the id is spliced into the envelope.
+ * The weak ETag identifies the result bytes, so HTTP clients can revalidate with If-None-Match.
+ */
+public record EncodedResult(byte[] json, String etag) {
+
+    public static EncodedResult of(JsonWritable result) {
+        byte[] json;
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            result.writeTo(writer);
+            json = writer.toByteArray();
+        }
+        return new EncodedResult(json, etag(json));
+    }
+
+    /**
+     * Success envelope for the given request id.
+     */
+    public Response response(Object id) {
+        return new Response(id, this);
+    }
+
+    /**
+     * True if an If-None-Match header value names this result's ETag (weak comparison).
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Success response around a pre-encoded result.
+     */
+    public record Response(Object id, EncodedResult result) implements JsonWritable {
+        @Override
+        public void writeTo(JsonWriter writer) {
+            writer.beginObject()
+                .name("jsonrpc").value("2.0")
+                .name("id").id(id)
+                .name("result").rawValue(result.json)
+                .endObject();
+        }
+    }
+}
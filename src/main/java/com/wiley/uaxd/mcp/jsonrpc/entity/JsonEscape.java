@@ -0,0 +1,88 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+/**
+ * Shared scanning kernels for JSON strings over UTF-8 bytes.
+ * Uses the incubating Vector API when the {@code jdk.incubator.vector} module
+ * is present (run with {@code --add-modules jdk.incubator.vector}) and falls
+ * back to a scalar loop otherwise. Set {@code -Duaxd.json.vector=false} to
+ * force the scalar kernel.
+ */
+public final class JsonEscape {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private static final Scanner SCANNER = loadScanner();
+
+    private JsonEscape() {
+    }
+
+    /**
+     * Scanning primitives; implementations must return {@code to} when nothing matches.
+     */
+    interface Scanner {
+
+        int indexOfEscape(byte[] bytes, int from, int to);
+
+        int indexOfQuoteOrBackslash(byte[] bytes, int from, int to);
+    }
+
+    /**
+     * Index of the first byte in [from, to) that must be escaped inside a JSON string:
+     * a quote, a backslash or a control character below 0x20. Returns {@code to} if there is none.
+     * Multi-byte UTF-8 sequences never need escaping, so they are skipped like plain ASCII.
+     */
+    public static int indexOfEscape(byte[] bytes, int from, int to) {
+        return SCANNER.indexOfEscape(bytes, from, to);
+    }
+
+    /**
+     * Index of the first quote or backslash in [from, to), or {@code to} if there is none.
+     */
+    public static int indexOfQuoteOrBackslash(byte[] bytes, int from, int to) {
+        return SCANNER.indexOfQuoteOrBackslash(bytes, from, to);
+    }
+
+    public static boolean isVectorized() {
+        return !(SCANNER instanceof ScalarScanner);
+    }
+
+    static boolean needsEscape(byte b) {
+        return b == '"' || b == '\\' || (b >= 0 && b < 0x20);
+    }
+
+    private static Scanner loadScanner() {
+        if (!Boolean.parseBoolean(System.getProperty("uaxd.json.vector", "true"))
+                || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return new ScalarScanner();
+        }
+        try {
+            return new VectorJsonScanner();
+        } catch (LinkageError | RuntimeException e) {
+            return new ScalarScanner();
+        }
+    }
+
+    static final class ScalarScanner implements Scanner {
+
+        @Override
+        public int indexOfEscape(byte[] bytes, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (needsEscape(bytes[i])) {
+                    return i;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public int indexOfQuoteOrBackslash(byte[] bytes, int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte b = bytes[i];
+                if (b == '"' || b == '\\') {
+                    return i;
+                }
+            }
+            return to;
+        }
+    }
+}
@@ -1,209 +1,464 @@
 package com.wiley.uaxd.mcp.jsonrpc.entity;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Minimal JSON parser - handles basic JSON parsing for MCP protocol.
+ * Single pass over UTF-8 bytes: a cursor walks each byte once and values
+ * are built as they are read, without copying nested structures or
+ * decoding the whole document into a String. String ends are found with
+ * the shared {@link JsonEscape} kernel.
  */
 public class JsonParser {
 
+    static final int MAX_DEPTH = 256;
+
+    /** Keys that appear in almost every message, returned without allocating */
+    private static final String[] KNOWN_KEYS = {
+        "jsonrpc", "id", "method", "params", "name", "arguments",
+        "result", "error", "code", "message", "_meta", "progressToken"
+    };
+    private static final byte[][] KNOWN_KEY_BYTES = Arrays.stream(KNOWN_KEYS)
+        .map(k -> k.getBytes(StandardCharsets.US_ASCII))
+        .toArray(byte[][]::new);
+
     public static Map<String, Object> parseObject(String json) {
         if (json == null || json.isBlank()) {
             return Collections.emptyMap();
         }
-        json = json.trim();
-        if (!json.startsWith("{") || !json.endsWith("}")) {
-            return Collections.emptyMap();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parseObject(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parses the remaining bytes of a UTF-8 buffer without changing its position.
+     */
+    public static Map<String, Object> parseObject(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parseObject(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
         }
-        return parseObjectInternal(json);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return parseObject(bytes, 0, bytes.length);
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<String, Object> parseObjectInternal(String json) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        json = json.substring(1, json.length() - 1).trim();
-        if (json.isEmpty()) {
+    public static Map<String, Object> parseObject(byte[] bytes, int offset, int length) {
+        Cursor cursor = new Cursor(bytes, offset, offset + length);
+        try {
+            cursor.skipWhitespace();
+            if (cursor.peek() != '{') {
+                return Collections.emptyMap();
+            }
+            Map<String, Object> result = cursor.readObject(0);
+            cursor.skipWhitespace();
+            if (!cursor.atEnd()) {
+                return Collections.emptyMap();
+            }
             return result;
+        } catch (MalformedJsonException e) {
+            return Collections.emptyMap();
         }
+    }
 
-        int i = 0;
-        while (i < json.length()) {
-            // Skip whitespace
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length()) break;
+    public static JsonRPCEnvelope parseEnvelope(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parseEnvelope(bytes, 0, bytes.length);
+    }
 
-            // Parse key
-            if (json.charAt(i) != '"') break;
-            int keyStart = i + 1;
-            int keyEnd = findStringEnd(json, keyStart);
-            if (keyEnd < 0) break;
-            String key = json.substring(keyStart, keyEnd);
-            i = keyEnd + 1;
+    /**
+     * Parses the envelope from the remaining bytes of a UTF-8 buffer without changing its position.
+     */
+    public static JsonRPCEnvelope parseEnvelope(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parseEnvelope(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return parseEnvelope(bytes, 0, bytes.length);
+    }
 
-            // Skip to colon
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length() || json.charAt(i) != ':') break;
-            i++;
+    /**
+     * Reads only jsonrpc, id and method from a JSON-RPC message. Every other member is
+     * validated and skipped without building values; params is kept as a copy of its bytes.
+     * Returns null if the input is not a single well-formed JSON object.
+     */
+    public static JsonRPCEnvelope parseEnvelope(byte[] bytes, int offset, int length) {
+        Cursor cursor = new Cursor(bytes, offset, offset + length);
+        try {
+            cursor.skipWhitespace();
+            if (cursor.peek() != '{') {
+                return null;
+            }
+            JsonRPCEnvelope envelope = cursor.readEnvelope();
+            cursor.skipWhitespace();
+            return cursor.atEnd() ? envelope : null;
+        } catch (MalformedJsonException e) {
+            return null;
+        }
+    }
 
-            // Skip whitespace
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length()) break;
+    /**
+     * True if the first non-whitespace byte of the remaining buffer opens an array (a JSON-RPC batch).
+     */
+    public static boolean isBatch(ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            byte c = buffer.get(i);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c == '[';
+            }
+        }
+        return false;
+    }
 
-            // Parse value
-            Object[] valueAndEnd = parseValue(json, i);
-            if (valueAndEnd == null) break;
-            result.put(key, valueAndEnd[0]);
-            i = (int) valueAndEnd[1];
+    /**
+     * Parses a JSON-RPC batch from the remaining bytes of a UTF-8 buffer without changing its position.
+     */
+    public static List<JsonRPCEnvelope> parseBatch(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parseBatch(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return parseBatch(bytes, 0, bytes.length);
+    }
 
-            // Skip whitespace and comma
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i < json.length() && json.charAt(i) == ',') i++;
+    /**
+     * Parses the envelope of every batch entry; entries that are not objects are returned as null.
+     * Returns null if the input is not a single well-formed JSON array.
+     */
+    public static List<JsonRPCEnvelope> parseBatch(byte[] bytes, int offset, int length) {
+        Cursor cursor = new Cursor(bytes, offset, offset + length);
+        try {
+            cursor.skipWhitespace();
+            if (cursor.peek() != '[') {
+                return null;
+            }
+            List<JsonRPCEnvelope> entries = cursor.readBatch();
+            cursor.skipWhitespace();
+            return cursor.atEnd() ? entries : null;
+        } catch (MalformedJsonException e) {
+            return null;
         }
+    }
 
-        return result;
+    /**
+     * Thrown internally on malformed input; stackless because it is only used for control flow.
+     */
+    private static final class MalformedJsonException extends RuntimeException {
+        private static final MalformedJsonException INSTANCE = new MalformedJsonException();
+
+        private MalformedJsonException() {
+            super(null, null, false, false);
+        }
     }
 
-    private static Object[] parseValue(String json, int start) {
-        if (start >= json.length()) return null;
-        char c = json.charAt(start);
-
-        if (c == '"') {
-            // String
-            int end = findStringEnd(json, start + 1);
-            if (end < 0) return null;
-            String value = unescapeString(json.substring(start + 1, end));
-            return new Object[]{value, end + 1};
-        } else if (c == '{') {
-            // Object
-            int end = findObjectEnd(json, start);
-            if (end < 0) return null;
-            Map<String, Object> obj = parseObjectInternal(json.substring(start, end + 1));
-            return new Object[]{obj, end + 1};
-        } else if (c == '[') {
-            // Array
-            int end = findArrayEnd(json, start);
-            if (end < 0) return null;
-            List<Object> arr = parseArray(json.substring(start, end + 1));
-            return new Object[]{arr, end + 1};
-        } else if (c == 't' && json.startsWith("true", start)) {
-            return new Object[]{true, start + 4};
-        } else if (c == 'f' && json.startsWith("false", start)) {
-            return new Object[]{false, start + 5};
-        } else if (c == 'n' && json.startsWith("null", start)) {
-            return new Object[]{null, start + 4};
-        } else if (c == '-' || Character.isDigit(c)) {
-            // Number
-            int end = start;
-            while (end < json.length() && isNumberChar(json.charAt(end))) end++;
-            String numStr = json.substring(start, end);
-            try {
-                if (numStr.contains(".") || numStr.contains("e") || numStr.contains("E")) {
-                    return new Object[]{Double.parseDouble(numStr), end};
-                } else {
-                    return new Object[]{Long.parseLong(numStr), end};
+    /**
+     * Read position over UTF-8 encoded JSON.
+     * Structural characters are all ASCII, so multi-byte sequences are only
+     * ever decoded inside string values.
+     */
+    private static final class Cursor {
+        private final byte[] json;
+        private final int limit;
+        private int pos;
+
+        Cursor(byte[] json, int offset, int limit) {
+            this.json = json;
+            this.pos = offset;
+            this.limit = limit;
+        }
+
+        boolean atEnd() {
+            return pos >= limit;
+        }
+
+        byte peek() {
+            return pos < limit ? json[pos] : 0;
+        }
+
+        void skipWhitespace() {
+            while (pos < limit) {
+                byte c = json[pos];
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
                 }
-            } catch (NumberFormatException e) {
-                return null;
+                pos++;
             }
         }
-        return null;
-    }
 
-    private static List<Object> parseArray(String json) {
-        List<Object> result = new ArrayList<>();
-        json = json.substring(1, json.length() - 1).trim();
-        if (json.isEmpty()) return result;
+        void expect(char expected) {
+            if (pos >= limit || json[pos] != expected) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            pos++;
+        }
 
-        int i = 0;
-        while (i < json.length()) {
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i >= json.length()) break;
+        Object readValue(int depth) {
+            if (pos >= limit) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            byte c = json[pos];
+            return switch (c) {
+                case '"' -> readString();
+                case '{' -> readObject(depth + 1);
+                case '[' -> readArray(depth + 1);
+                case 't' -> readLiteral("true", Boolean.TRUE);
+                case 'f' -> readLiteral("false", Boolean.FALSE);
+                case 'n' -> readLiteral("null", null);
+                default -> {
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        yield readNumber();
+                    }
+                    throw MalformedJsonException.INSTANCE;
+                }
+            };
+        }
 
-            Object[] valueAndEnd = parseValue(json, i);
-            if (valueAndEnd == null) break;
-            result.add(valueAndEnd[0]);
-            i = (int) valueAndEnd[1];
+        Map<String, Object> readObject(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            expect('{');
+            Map<String, Object> result = new LinkedHashMap<>();
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readKey();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                result.put(key, readValue(depth));
+                skipWhitespace();
+                byte c = peek();
+                pos++;
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw MalformedJsonException.INSTANCE;
+                }
+            }
+        }
 
-            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
-            if (i < json.length() && json.charAt(i) == ',') i++;
+        JsonRPCEnvelope readEnvelope() {
+            expect('{');
+            String jsonrpc = null;
+            Object id = null;
+            String method = null;
+            JsonRPCParams params = null;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return new JsonRPCEnvelope(null, null, null, null);
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readKey();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                switch (key) {
+                    case "jsonrpc" -> jsonrpc = readValue(1) instanceof String s ? s : null;
+                    case "id" -> id = readValue(1);
+                    case "method" -> method = readValue(1) instanceof String s ? s : null;
+                    case "params" -> {
+                        int start = pos;
+                        skipValue(1);
+                        params = isNull(start) ? null : new JsonRPCParams(Arrays.copyOfRange(json, start, pos));
+                    }
+                    default -> skipValue(1);
+                }
+                skipWhitespace();
+                byte c = peek();
+                pos++;
+                if (c == '}') {
+                    return new JsonRPCEnvelope(jsonrpc, id, method, params);
+                }
+                if (c != ',') {
+                    throw MalformedJsonException.INSTANCE;
+                }
+            }
         }
-        return result;
-    }
 
-    private static int findStringEnd(String json, int start) {
-        for (int i = start; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (c == '\\' && i + 1 < json.length()) {
-                i++; // Skip escaped character
-            } else if (c == '"') {
-                return i;
+        List<JsonRPCEnvelope> readBatch() {
+            expect('[');
+            List<JsonRPCEnvelope> entries = new ArrayList<>();
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return entries;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() == '{') {
+                    entries.add(readEnvelope());
+                } else {
+                    skipValue(1);
+                    entries.add(null);
+                }
+                skipWhitespace();
+                byte c = peek();
+                pos++;
+                if (c == ']') {
+                    return entries;
+                }
+                if (c != ',') {
+                    throw MalformedJsonException.INSTANCE;
+                }
             }
         }
-        return -1;
-    }
 
-    private static int findObjectEnd(String json, int start) {
-        int depth = 0;
-        boolean inString = false;
-        for (int i = start; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (inString) {
-                if (c == '\\' && i + 1 < json.length()) {
-                    i++;
-                } else if (c == '"') {
-                    inString = false;
+        private boolean isNull(int start) {
+            return pos - start == 4 && json[start] == 'n';
+        }
+
+        /**
+         * Validates a value and moves past it without materializing anything.
+         */
+        void skipValue(int depth) {
+            if (depth > MAX_DEPTH || pos >= limit) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            switch (json[pos]) {
+                case '"' -> skipString();
+                case '{' -> skipContainer('}', depth, true);
+                case '[' -> skipContainer(']', depth, false);
+                case 't' -> readLiteral("true", Boolean.TRUE);
+                case 'f' -> readLiteral("false", Boolean.FALSE);
+                case 'n' -> readLiteral("null", null);
+                default -> readNumber();
+            }
+        }
+
+        private void skipContainer(char close, int depth, boolean object) {
+            pos++;
+            skipWhitespace();
+            if (peek() == close) {
+                pos++;
+                return;
+            }
+            while (true) {
+                skipWhitespace();
+                if (object) {
+                    if (peek() != '"') {
+                        throw MalformedJsonException.INSTANCE;
+                    }
+                    skipString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                }
+                skipValue(depth + 1);
+                skipWhitespace();
+                byte c = peek();
+                pos++;
+                if (c == close) {
+                    return;
                 }
-            } else {
-                if (c == '"') {
-                    inString = true;
-                } else if (c == '{') {
-                    depth++;
-                } else if (c == '}') {
-                    depth--;
-                    if (depth == 0) return i;
+                if (c != ',') {
+                    throw MalformedJsonException.INSTANCE;
                 }
             }
         }
-        return -1;
-    }
 
-    private static int findArrayEnd(String json, int start) {
-        int depth = 0;
-        boolean inString = false;
-        for (int i = start; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (inString) {
-                if (c == '\\' && i + 1 < json.length()) {
-                    i++;
-                } else if (c == '"') {
-                    inString = false;
+        private void skipString() {
+            pos++;
+            while ((pos = JsonEscape.indexOfQuoteOrBackslash(json, pos, limit)) < limit) {
+                if (json[pos] == '"') {
+                    pos++;
+                    return;
                 }
-            } else {
-                if (c == '"') {
-                    inString = true;
-                } else if (c == '[') {
-                    depth++;
-                } else if (c == ']') {
-                    depth--;
-                    if (depth == 0) return i;
+                // Skip the escaped character; the hex digits of a unicode escape are plain bytes
+                pos += 2;
+            }
+            throw MalformedJsonException.INSTANCE;
+        }
+
+        List<Object> readArray(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            expect('[');
+            List<Object> result = new ArrayList<>();
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                result.add(readValue(depth));
+                skipWhitespace();
+                byte c = peek();
+                pos++;
+                if (c == ']') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw MalformedJsonException.INSTANCE;
                 }
             }
         }
-        return -1;
-    }
 
-    private static boolean isNumberChar(char c) {
-        return Character.isDigit(c) || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E';
-    }
+        /**
+         * Reads an object key, reusing the constant for well-known protocol keys.
+         */
+        String readKey() {
+            if (peek() != '"') {
+                throw MalformedJsonException.INSTANCE;
+            }
+            int start = pos + 1;
+            int end = JsonEscape.indexOfQuoteOrBackslash(json, start, limit);
+            if (end < limit && json[end] == '"') {
+                int length = end - start;
+                for (int k = 0; k < KNOWN_KEY_BYTES.length; k++) {
+                    byte[] known = KNOWN_KEY_BYTES[k];
+                    if (known.length == length && Arrays.equals(json, start, end, known, 0, length)) {
+                        pos = end + 1;
+                        return KNOWN_KEYS[k];
+                    }
+                }
+            }
+            return readString();
+        }
 
-    private static String unescapeString(String s) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            if (c == '\\' && i + 1 < s.length()) {
-                char next = s.charAt(++i);
+        String readString() {
+            expect('"');
+            int start = pos;
+            // Fast path: no escapes, decode the bytes once
+            pos = JsonEscape.indexOfQuoteOrBackslash(json, pos, limit);
+            if (pos >= limit) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            if (json[pos] == '"') {
+                return new String(json, start, pos++ - start, StandardCharsets.UTF_8);
+            }
+            return readEscapedString(start);
+        }
+
+        private String readEscapedString(int start) {
+            StringBuilder sb = new StringBuilder(pos - start + 16);
+            int segment = start;
+            while ((pos = JsonEscape.indexOfQuoteOrBackslash(json, pos, limit)) < limit) {
+                if (json[pos] == '"') {
+                    appendSegment(sb, segment, pos);
+                    pos++;
+                    return sb.toString();
+                }
+                appendSegment(sb, segment, pos);
+                if (++pos >= limit) {
+                    break;
+                }
+                byte next = json[pos++];
                 switch (next) {
                     case '"' -> sb.append('"');
                     case '\\' -> sb.append('\\');
@@ -213,93 +468,108 @@ public class JsonParser {
                     case 'n' -> sb.append('\n');
                     case 'r' -> sb.append('\r');
                     case 't' -> sb.append('\t');
-                    case 'u' -> {
-                        if (i + 4 < s.length()) {
-                            String hex = s.substring(i + 1, i + 5);
-                            try {
-                                sb.append((char) Integer.parseInt(hex, 16));
-                                i += 4;
-                            } catch (NumberFormatException e) {
-                                sb.append("\\u");
-                            }
-                        }
-                    }
-                    default -> {
-                        sb.append('\\');
-                        sb.append(next);
-                    }
+                    case 'u' -> sb.append(readUnicodeEscape());
+                    default -> throw MalformedJsonException.INSTANCE;
                 }
-            } else {
-                sb.append(c);
+                segment = pos;
             }
+            throw MalformedJsonException.INSTANCE;
         }
-        return sb.toString();
-    }
 
-    // JSON building utilities
-    public static String toJson(Map<String, Object> map) {
-        StringBuilder sb = new StringBuilder("{");
-        boolean first = true;
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            if (!first) sb.append(",");
-            first = false;
-            sb.append("\"").append(escapeString(entry.getKey())).append("\":");
-            sb.append(valueToJson(entry.getValue()));
-        }
-        sb.append("}");
-        return sb.toString();
-    }
+        private void appendSegment(StringBuilder sb, int from, int to) {
+            if (to > from) {
+                sb.append(new String(json, from, to - from, StandardCharsets.UTF_8));
+            }
+        }
 
-    public static String toJson(List<?> list) {
-        StringBuilder sb = new StringBuilder("[");
-        boolean first = true;
-        for (Object item : list) {
-            if (!first) sb.append(",");
-            first = false;
-            sb.append(valueToJson(item));
-        }
-        sb.append("]");
-        return sb.toString();
-    }
+        private char readUnicodeEscape() {
+            if (pos + 4 > limit) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(json[pos++], 16);
+                if (digit < 0) {
+                    throw MalformedJsonException.INSTANCE;
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        }
 
-    @SuppressWarnings("unchecked")
-    private static String valueToJson(Object value) {
-        if (value == null) {
-            return "null";
-        } else if (value instanceof String s) {
-            return "\"" + escapeString(s) + "\"";
-        } else if (value instanceof Number || value instanceof Boolean) {
-            return value.toString();
-        } else if (value instanceof Map m) {
-            return toJson(m);
-        } else if (value instanceof List l) {
-            return toJson(l);
-        } else {
-            return "\"" + escapeString(value.toString()) + "\"";
+        private Object readLiteral(String literal, Object value) {
+            int length = literal.length();
+            if (pos + length > limit) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            for (int i = 0; i < length; i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    throw MalformedJsonException.INSTANCE;
+                }
+            }
+            pos += length;
+            return value;
         }
-    }
 
-    private static String escapeString(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder();
-        for (char c : s.toCharArray()) {
-            switch (c) {
-                case '"' -> sb.append("\\\"");
-                case '\\' -> sb.append("\\\\");
-                case '\b' -> sb.append("\\b");
-                case '\f' -> sb.append("\\f");
-                case '\n' -> sb.append("\\n");
-                case '\r' -> sb.append("\\r");
-                case '\t' -> sb.append("\\t");
-                default -> {
-                    if (c < 32) {
-                        sb.append(String.format("\\u%04x", (int) c));
-                    } else {
-                        sb.append(c);
-                    }
+        private Object readNumber() {
+            int start = pos;
+            boolean negative = json[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            boolean overflow = false;
+            while (pos < limit) {
+                byte c = json[pos];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                int digit = c - '0';
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    overflow = true;
+                }
+                value = value * 10 + digit;
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                throw MalformedJsonException.INSTANCE;
+            }
+
+            byte c = peek();
+            if (c == '.' || c == 'e' || c == 'E') {
+                pos++;
+                while (pos < limit && isNumberChar(json[pos])) {
+                    pos++;
                 }
+                return parseDouble(start);
+            }
+            if (overflow) {
+                return parseDouble(start);
             }
+            return negative ? -value : value;
         }
-        return sb.toString();
+
+        private Double parseDouble(int start) {
+            try {
+                return Double.parseDouble(new String(json, start, pos - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw MalformedJsonException.INSTANCE;
+            }
+        }
+    }
+
+    private static boolean isNumberChar(byte c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E';
+    }
+
+    // JSON building utilities
+    public static String toJson(Map<String, Object> map) {
+        return JsonWriter.toString(writer -> writer.value(map));
+    }
+
+    public static String toJson(List<?> list) {
+        return JsonWriter.toString(writer -> writer.value(list));
     }
 }
@@ -0,0 +1,11 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+/**
+ * The routing members of a JSON-RPC message. Params are kept unparsed until a handler needs them.
+ */
+public record JsonRPCEnvelope(String jsonrpc, Object id, String method, JsonRPCParams params) {
+
+    public boolean isValidVersion() {
+        return "2.0".equals(jsonrpc);
+    }
+}
@@ -0,0 +1,38 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The params member of a request, kept as its own UTF-8 bytes and parsed on first access.
+ * Only the params span is copied, so the rest of the request can be collected early.
+ */
+public final class JsonRPCParams {
+
+    private final byte[] json;
+    private volatile Map<String, Object> parsed;
+
+    JsonRPCParams(byte[] json) {
+        this.json = json;
+    }
+
+    public static JsonRPCParams of(String json) {
+        return new JsonRPCParams(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the params object on first call; a non-object value yields an empty map.
+     */
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = parsed;
+        if (map == null) {
+            map = JsonParser.parseObject(json, 0, json.length);
+            parsed = map;
+        }
+        return map;
+    }
+
+    public int length() {
+        return json.length;
+    }
+}
@@ -1,34 +1,58 @@
 package com.wiley.uaxd.mcp.jsonrpc.entity;
 
+import java.util.List;
+
 /**
  * JSON-RPC response builders.
+ * Envelopes are written lazily: nothing is encoded until the transport
+ * hands the message to a {@link JsonWriter}.
  */
 public interface JsonRPCResponses {
 
-    static String success(Object id, String resultJson) {
-        String idStr = id instanceof String ? "\"" + id + "\"" : String.valueOf(id);
-        return String.format("""
-            {"jsonrpc":"2.0","id":%s,"result":%s}""", idStr, resultJson);
+    static JsonWritable success(Object id, JsonWritable result) {
+        return writer -> writer.beginObject()
+            .name("jsonrpc").value("2.0")
+            .name("id").id(id)
+            .name("result").value(result)
+            .endObject();
+    }
+
+    /**
+     * Success envelope around an already encoded result.
+     */
+    static JsonWritable success(Object id, String resultJson) {
+        return success(id, writer -> writer.rawValue(resultJson));
     }
 
-    static String error(Object id, int code, String message) {
-        String idStr = id instanceof String ? "\"" + id + "\"" : String.valueOf(id);
-        return String.format("""
-            {"jsonrpc":"2.0","id":%s,"error":{"code":%d,"message":"%s"}}""",
-            idStr, code, escapeJson(message));
+    static JsonWritable error(Object id, int code, String message) {
+        return writer -> writer.beginObject()
+            .name("jsonrpc").value("2.0")
+            .name("id").id(id)
+            .name("error").beginObject()
+                .name("code").value(code)
+                .name("message").value(message != null ? message : "")
+            .endObject()
+            .endObject();
     }
 
-    static String notification(String method, String paramsJson) {
-        return String.format("""
-            {"jsonrpc":"2.0","method":"%s","params":%s}""", method, paramsJson);
+    /**
+     * Batch response: the individual responses as one array, in request order.
+     */
+    static JsonWritable batch(List<JsonWritable> responses) {
+        return writer -> {
+            writer.beginArray();
+            for (JsonWritable response : responses) {
+                response.writeTo(writer);
+            }
+            writer.endArray();
+        };
     }
 
-    private static String escapeJson(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+    static JsonWritable notification(String method, JsonWritable params) {
+        return writer -> writer.beginObject()
+            .name("jsonrpc").value("2.0")
+            .name("method").value(method)
+            .name("params").value(params)
+            .endObject();
     }
 }
@@ -0,0 +1,10 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+/**
+ * A value that encodes itself into a {@link JsonWriter}.
+ */
+@FunctionalInterface
+public interface JsonWritable {
+
+    void writeTo(JsonWriter writer);
+}
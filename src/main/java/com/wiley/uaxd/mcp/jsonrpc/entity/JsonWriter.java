@@ -0,0 +1,458 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Streaming JSON writer that encodes straight into UTF-8 bytes.
+ * Strings are escaped while they are copied, so a payload is encoded
+ * exactly once. Writers either buffer the whole document (pooled, see
+ * {@link #pooled()}) or stream into an {@link OutputStream} whenever the
+ * buffer fills up.
+ */
+public final class JsonWriter implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    /** A buffer grown past this for a rare large document is replaced when the writer goes back to the pool */
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final int POOL_SIZE = 64;
+    /** Whatever the parser accepts can be written back, nested inside a response envelope */
+    private static final int MAX_DEPTH = JsonParser.MAX_DEPTH + 64;
+    private static final int SCAN_THRESHOLD = 32;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private static final ArrayBlockingQueue<JsonWriter> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final OutputStream out;
+    private final boolean pooled;
+    private byte[] buf;
+    private int count;
+    private int depth;
+    /** One bit per nesting level: a value was already written there, so the next one needs a comma */
+    private final long[] needsComma = new long[(MAX_DEPTH >> 6) + 1];
+    private boolean afterName;
+
+    private JsonWriter(OutputStream out, boolean pooled) {
+        this.out = out;
+        this.pooled = pooled;
+        this.buf = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns a buffering writer from the pool. Close it to give it back.
+     */
+    public static JsonWriter pooled() {
+        JsonWriter writer = POOL.poll();
+        return writer != null ? writer : new JsonWriter(null, true);
+    }
+
+    /**
+     * Returns a writer that streams into the given output, buffering at most its initial capacity.
+     */
+    public static JsonWriter to(OutputStream out) {
+        return new JsonWriter(out, false);
+    }
+
+    /**
+     * Encodes a value into a String; meant for small payloads and tests.
+     */
+    public static String toString(JsonWritable value) {
+        try (JsonWriter writer = pooled()) {
+            value.writeTo(writer);
+            return writer.toString();
+        }
+    }
+
+    // --- structure ---
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    // --- values ---
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE, 0, value ? 4 : 5);
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeBytes(NULL, 0, 4);
+        return this;
+    }
+
+    /**
+     * Writes a JSON-RPC id: strings are quoted, numbers written as-is, anything else as null.
+     */
+    public JsonWriter id(Object id) {
+        if (id instanceof String s) {
+            return value(s);
+        }
+        if (id instanceof Number n) {
+            beforeValue();
+            writeNumber(n);
+            return this;
+        }
+        return nullValue();
+    }
+
+    /**
+     * Writes an already encoded JSON fragment without escaping.
+     */
+    public JsonWriter rawValue(String json) {
+        beforeValue();
+        writeRaw(json);
+        return this;
+    }
+
+    /**
+     * Writes an already encoded UTF-8 JSON fragment without escaping.
+     */
+    public JsonWriter rawValue(byte[] json) {
+        beforeValue();
+        writeBytes(json, 0, json.length);
+        return this;
+    }
+
+    public JsonWriter value(JsonWritable value) {
+        if (value == null) {
+            return nullValue();
+        }
+        value.writeTo(this);
+        return this;
+    }
+
+    /**
+     * Writes maps, lists, strings, numbers and booleans as their JSON counterparts;
+     * NaN and infinities have none and are written as null.
+     */
+    public JsonWriter value(Object value) {
+        switch (value) {
+            case null -> nullValue();
+            case String s -> value(s);
+            case Number n -> {
+                beforeValue();
+                writeNumber(n);
+            }
+            case Boolean b -> value(b.booleanValue());
+            case JsonWritable w -> value(w);
+            case Map<?, ?> map -> {
+                beginObject();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    name(String.valueOf(entry.getKey())).value(entry.getValue());
+                }
+                endObject();
+            }
+            case List<?> list -> {
+                beginArray();
+                for (Object item : list) {
+                    value(item);
+                }
+                endArray();
+            }
+            default -> value(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Appends a raw byte outside of JSON structure, e.g. the newline that frames a STDIO message.
+     */
+    public JsonWriter newline() {
+        writeByte('\n');
+        return this;
+    }
+
+    // --- output ---
+
+    public int size() {
+        return count;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * Array-backed view of the buffered bytes, so readers can decode them without a copy;
+     * valid until the writer is reset or closed, and must not be written to.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    public void writeTo(OutputStream target) throws IOException {
+        target.write(buf, 0, count);
+    }
+
+    /**
+     * Writes any buffered bytes to the underlying stream of a streaming writer.
+     */
+    public void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.write(buf, 0, count);
+            count = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void reset() {
+        count = 0;
+        depth = 0;
+        Arrays.fill(needsComma, 0);
+        afterName = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Flushes a streaming writer, or returns a pooled writer to the pool.
+     */
+    @Override
+    public void close() {
+        if (!pooled) {
+            flush();
+            return;
+        }
+        reset();
+        if (buf.length > MAX_POOLED_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        POOL.offer(this);
+    }
+
+    // --- internals ---
+
+    private void push() {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting too deep");
+        }
+        needsComma[depth >> 6] &= ~(1L << depth);
+    }
+
+    private void pop() {
+        depth--;
+        needsComma[depth >> 6] |= 1L << depth;
+        afterName = false;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separate();
+    }
+
+    private void separate() {
+        long bit = 1L << depth;
+        if ((needsComma[depth >> 6] & bit) != 0) {
+            writeByte(',');
+        } else {
+            needsComma[depth >> 6] |= bit;
+        }
+    }
+
+    private void writeString(String s) {
+        if (s.length() >= SCAN_THRESHOLD) {
+            writeScannedString(s);
+            return;
+        }
+        writeByte('"');
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                writeAsciiEscaped(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[count++] = (byte) (0xC0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                writeByte('?');
+            } else {
+                ensure(3);
+                buf[count++] = (byte) (0xE0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Long strings are encoded to UTF-8 once, then the runs between escapes are copied in bulk.
+     */
+    private void writeScannedString(String s) {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        int length = utf8.length;
+        writeByte('"');
+        int from = 0;
+        while (from < length) {
+            int next = JsonEscape.indexOfEscape(utf8, from, length);
+            writeBytes(utf8, from, next - from);
+            if (next == length) {
+                break;
+            }
+            writeAsciiEscaped((char) utf8[next]);
+            from = next + 1;
+        }
+        writeByte('"');
+    }
+
+    private void writeAsciiEscaped(char c) {
+        switch (c) {
+            case '"' -> writeEscape('"');
+            case '\\' -> writeEscape('\\');
+            case '\n' -> writeEscape('n');
+            case '\r' -> writeEscape('r');
+            case '\t' -> writeEscape('t');
+            case '\b' -> writeEscape('b');
+            case '\f' -> writeEscape('f');
+            default -> {
+                if (c < 0x20) {
+                    ensure(6);
+                    buf[count++] = '\\';
+                    buf[count++] = 'u';
+                    buf[count++] = '0';
+                    buf[count++] = '0';
+                    buf[count++] = HEX[c >> 4];
+                    buf[count++] = HEX[c & 0xF];
+                } else {
+                    writeByte(c);
+                }
+            }
+        }
+    }
+
+    private void writeEscape(char c) {
+        ensure(2);
+        buf[count++] = '\\';
+        buf[count++] = (byte) c;
+    }
+
+    private void writeRaw(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeNumber(Number n) {
+        if (n instanceof Double d && !Double.isFinite(d) || n instanceof Float f && !Float.isFinite(f)) {
+            writeBytes(NULL, 0, 4);
+        } else {
+            writeAscii(n.toString());
+        }
+    }
+
+    private void writeAscii(String s) {
+        int length = s.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[count++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        if (out != null && length > buf.length) {
+            flush();
+            try {
+                out.write(bytes, offset, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        ensure(length);
+        System.arraycopy(bytes, offset, buf, count, length);
+        count += length;
+    }
+
+    private void ensure(int extra) {
+        if (count + extra <= buf.length) {
+            return;
+        }
+        if (out != null) {
+            flush();
+            if (extra <= buf.length) {
+                return;
+            }
+        }
+        buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+    }
+}
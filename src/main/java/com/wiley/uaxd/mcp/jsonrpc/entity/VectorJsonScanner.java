@@ -0,0 +1,48 @@
+package com.wiley.uaxd.mcp.jsonrpc.entity;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel: compares a whole register of bytes (32 or 64 depending
+ * on the CPU) per iteration and finishes the tail with the scalar loop.
+ * Bytes are signed, so UTF-8 continuation bytes are excluded from the control check by the {@code >= 0} test.
+ * Only loaded by {@link JsonEscape} when the incubator module is present.
+ */
+final class VectorJsonScanner implements JsonEscape.Scanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private final JsonEscape.ScalarScanner tail = new JsonEscape.ScalarScanner();
+
+    @Override
+    public int indexOfEscape(byte[] bytes, int from, int to) {
+        int i = from;
+        for (int bound = to - LANES; i <= bound; i += LANES) {
+            ByteVector v = ByteVector.fromArray(SPECIES, bytes, i);
+            VectorMask<Byte> hits = v.eq((byte) '"')
+                .or(v.eq((byte) '\\'))
+                .or(v.compare(VectorOperators.LT, (byte) 0x20).and(v.compare(VectorOperators.GE, (byte) 0)));
+            if (hits.anyTrue()) {
+                return i + hits.firstTrue();
+            }
+        }
+        return tail.indexOfEscape(bytes, i, to);
+    }
+
+    @Override
+    public int indexOfQuoteOrBackslash(byte[] bytes, int from, int to) {
+        int i = from;
+        for (int bound = to - LANES; i <= bound; i += LANES) {
+            ByteVector v = ByteVector.fromArray(SPECIES, bytes, i);
+            VectorMask<Byte> hits = v.eq((byte) '"').or(v.eq((byte) '\\'));
+            if (hits.anyTrue()) {
+                return i + hits.firstTrue();
+            }
+        }
+        return tail.indexOfQuoteOrBackslash(bytes, i, to);
+    }
+}
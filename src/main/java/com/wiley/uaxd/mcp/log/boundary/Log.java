@@ -1,52 +1,135 @@
 package com.wiley.uaxd.mcp.log.boundary;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import com.wiley.uaxd.mcp.log.control.AsyncLogWriter;
+import com.wiley.uaxd.mcp.log.control.LogFilter;
+import com.wiley.uaxd.mcp.log.entity.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
 
 /**
  * Simple file-based logging for MCP server.
+ * Lines are handed to an asynchronous writer, so callers never block on file I/O.
+ * The {@link Supplier} overloads only build the message when the level is enabled.
  */
 public interface Log {
-    Path LOG_FILE = Path.of(System.getProperty("user.home"), "uaxd-mcp.log");
-    DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    static boolean isEnabled(LogLevel level) {
+        return LogFilter.instance().isEnabled(level);
+    }
+
+    static void setLevel(LogLevel level) {
+        LogFilter.instance().setLevel(level);
+    }
 
     static void info(String message) {
-        log("INFO", message);
+        log(LogLevel.INFO, message);
+    }
+
+    static void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
     }
 
     static void debug(String message) {
-        log("DEBUG", message);
+        log(LogLevel.DEBUG, message);
+    }
+
+    static void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    static void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    static void warn(Supplier<String> message) {
+        log(LogLevel.WARN, message);
     }
 
     static void error(String message) {
-        log("ERROR", message);
+        log(LogLevel.ERROR, message);
+    }
+
+    static void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
     }
 
     static void error(String message, Throwable t) {
-        log("ERROR", message + " - " + t.getMessage());
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, message + " - " + t.getMessage());
+        }
     }
 
     static void request(String message) {
-        log("REQUEST", message);
+        request(null, message);
+    }
+
+    /**
+     * Logs a request payload, subject to per-method sampling and truncation.
+     */
+    static void request(String method, String payload) {
+        payload("REQUEST", method, payload);
+    }
+
+    /**
+     * Logs a UTF-8 request payload; only the logged prefix is decoded.
+     */
+    static void request(String method, ByteBuffer payload) {
+        LogFilter filter = LogFilter.instance();
+        if (filter.samplePayload(method)) {
+            write("REQUEST", method, filter.truncate(payload));
+        }
     }
 
     static void response(String message) {
-        log("RESPONSE", message);
-    }
-
-    private static void log(String level, String message) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        String logLine = String.format("[%s] [%s] %s%n", timestamp, level, message);
-        try {
-            Files.writeString(LOG_FILE, logLine,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            // Silent fail - can't log if logging fails
+        response(null, message);
+    }
+
+    /**
+     * Logs a response payload, subject to per-method sampling and truncation.
+     */
+    static void response(String method, String payload) {
+        payload("RESPONSE", method, payload);
+    }
+
+    /**
+     * Logs a UTF-8 response payload; only the logged prefix is decoded.
+     */
+    static void response(String method, ByteBuffer payload) {
+        LogFilter filter = LogFilter.instance();
+        if (filter.samplePayload(method)) {
+            write("RESPONSE", method, filter.truncate(payload));
+        }
+    }
+
+    /**
+     * Writes all pending log lines and closes the log file.
+     */
+    static void shutdown() {
+        AsyncLogWriter.instance().close();
+    }
+
+    private static void payload(String label, String method, String payload) {
+        LogFilter filter = LogFilter.instance();
+        if (!filter.samplePayload(method)) {
+            return;
+        }
+        write(label, method, filter.truncate(payload));
+    }
+
+    private static void write(String label, String method, String payload) {
+        AsyncLogWriter.instance().append(label, method != null ? "[" + method + "] " + payload : payload);
+    }
+
+    private static void log(LogLevel level, String message) {
+        if (isEnabled(level)) {
+            AsyncLogWriter.instance().append(level.name(), message);
+        }
+    }
+
+    private static void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            AsyncLogWriter.instance().append(level.name(), message.get());
         }
     }
 }
@@ -0,0 +1,289 @@
+package com.wiley.uaxd.mcp.log.control;
+
+import com.wiley.uaxd.mcp.log.entity.LogConfig;
+import com.wiley.uaxd.mcp.log.entity.LogEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log back end.
+ * Request threads enqueue events into a lock-free ring buffer; a single
+ * background thread keeps the log file open, writes them in batches and
+ * rotates the file between batches.
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LogConfig config;
+    private final LogRingBuffer buffer;
+    private final LogRotator rotator;
+    private final int highWaterMark;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private volatile boolean parked = false;
+
+    // Owned by the writer thread
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // A lone surrogate, which a client can send as a JSON escape, becomes '?' instead of cutting the line short
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(256);
+    private final ZoneId zone = ZoneId.systemDefault();
+    private FileChannel channel;
+    private long fileSize;
+    private boolean rotationFailing;
+
+    private static final class Holder {
+        static final AsyncLogWriter INSTANCE = start(LogConfig.fromSystemProperties());
+    }
+
+    /**
+     * Returns the process-wide writer, starting it on first use. It is closed by the
+     * application's shutdown hook, after everything else has logged its last line.
+     */
+    public static AsyncLogWriter instance() {
+        return Holder.INSTANCE;
+    }
+
+    public static AsyncLogWriter start(LogConfig config) {
+        AsyncLogWriter writer = new AsyncLogWriter(config);
+        writer.writerThread.start();
+        return writer;
+    }
+
+    private AsyncLogWriter(LogConfig config) {
+        this.config = config;
+        this.buffer = new LogRingBuffer(config.capacity());
+        this.rotator = new LogRotator(config);
+        this.highWaterMark = buffer.capacity() * 3 / 4;
+        this.writerThread = new Thread(this::run, "log-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Enqueues a log line. Never touches the file on the calling thread
+     * unless the writer has already been closed.
+     */
+    public void append(String level, String message) {
+        LogEvent event = new LogEvent(System.currentTimeMillis(), level, message);
+        if (!running) {
+            writeDirect(event);
+            return;
+        }
+
+        boolean accepted = switch (config.overflowPolicy()) {
+            case DROP -> buffer.offer(event);
+            case BLOCK -> offerBlocking(event);
+            case SAMPLE -> offerSampled(event);
+        };
+
+        if (!accepted) {
+            dropped.incrementAndGet();
+        }
+        if (parked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private boolean offerBlocking(LogEvent event) {
+        while (!buffer.offer(event)) {
+            if (!running) {
+                writeDirect(event);
+                return true;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private boolean offerSampled(LogEvent event) {
+        if (buffer.size() >= highWaterMark
+                && sampleCounter.incrementAndGet() % config.sampleRate() != 0) {
+            return false;
+        }
+        return buffer.offer(event);
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting events, drains the buffer and closes the file.
+     * Events logged afterwards are written synchronously.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !buffer.isEmpty()) {
+            int written;
+            try {
+                written = drainBatch();
+            } catch (RuntimeException e) {
+                // Never let a bad event stop the writer
+                out.clear();
+                written = 1;
+            }
+            if (rotator.shouldRotate(fileSize)) {
+                rotate();
+            }
+            if (written == 0) {
+                parked = true;
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+        closeChannel();
+        rotator.close();
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        LogEvent event;
+        while (count < config.batchSize() && (event = buffer.poll()) != null) {
+            encode(event);
+            count++;
+        }
+
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            encode(new LogEvent(System.currentTimeMillis(), "WARN", "Dropped " + lost + " log events (buffer full)"));
+        }
+
+        if (out.position() > 0) {
+            flush();
+        }
+        return count;
+    }
+
+    private void encode(LogEvent event) {
+        line.setLength(0);
+        format(event, line);
+
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, out, true);
+            if (result.isOverflow()) {
+                flush();
+            } else {
+                break;
+            }
+        }
+        encoder.flush(out);
+    }
+
+    private void format(LogEvent event, StringBuilder sb) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp()), zone);
+        sb.append('[');
+        FORMATTER.formatTo(time, sb);
+        sb.append("] [").append(event.level()).append("] ")
+          .append(event.message())
+          .append(LINE_SEPARATOR);
+    }
+
+    private void flush() {
+        out.flip();
+        try {
+            FileChannel ch = channel();
+            while (out.hasRemaining()) {
+                fileSize += ch.write(out);
+            }
+        } catch (IOException e) {
+            // Silent fail - can't log if logging fails
+            closeChannel();
+        }
+        out.clear();
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(config.file(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+            fileSize = channel.size();
+            rotator.segmentOpened(config.file());
+        }
+        return channel;
+    }
+
+    private void rotate() {
+        closeChannel();
+        try {
+            rotator.rotate(config.file());
+            rotationFailing = false;
+        } catch (IOException e) {
+            // Reported once, in the file itself, until a rotation succeeds again
+            if (!rotationFailing) {
+                rotationFailing = true;
+                encode(new LogEvent(System.currentTimeMillis(), "WARN", "Log rotation failed, retrying every "
+                    + TimeUnit.MILLISECONDS.toSeconds(LogRotator.RETRY_DELAY_MILLIS) + "s: " + e));
+            }
+        }
+        fileSize = 0;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+            channel = null;
+        }
+    }
+
+    private void writeDirect(LogEvent event) {
+        StringBuilder sb = new StringBuilder(128);
+        format(event, sb);
+        try {
+            Files.write(config.file(), sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // Silent fail - can't log if logging fails
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.wiley.uaxd.mcp.log.control;
+
+import com.wiley.uaxd.mcp.log.entity.LogConfig;
+import com.wiley.uaxd.mcp.log.entity.LogLevel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides what gets logged: the runtime level, per-method payload sampling
+ * and payload truncation.
+ */
+public class LogFilter {
+
+    private final LogConfig config;
+    private final ConcurrentHashMap<String, AtomicLong> payloadCounters = new ConcurrentHashMap<>();
+    private volatile LogLevel level;
+
+    private static final class Holder {
+        static final LogFilter INSTANCE = new LogFilter(LogConfig.fromSystemProperties());
+    }
+
+    public static LogFilter instance() {
+        return Holder.INSTANCE;
+    }
+
+    public LogFilter(LogConfig config) {
+        this.config = config;
+        this.level = config.level();
+    }
+
+    public boolean isEnabled(LogLevel candidate) {
+        return candidate != LogLevel.OFF && candidate.compareTo(level) >= 0;
+    }
+
+    public LogLevel level() {
+        return level;
+    }
+
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns true if this payload for the given method should be logged.
+     */
+    public boolean samplePayload(String method) {
+        if (!isEnabled(LogLevel.INFO)) {
+            return false;
+        }
+        int rate = config.payloadSampleRate(method);
+        if (rate <= 1) {
+            return true;
+        }
+        String key = method != null ? method : LogConfig.ANY_METHOD;
+        AtomicLong counter = payloadCounters.computeIfAbsent(key, k -> new AtomicLong());
+        return counter.getAndIncrement() % rate == 0;
+    }
+
+    /**
+     * Keeps the first maxPayloadLength characters and appends the total length.
+     */
+    public String truncate(String payload) {
+        int max = config.maxPayloadLength();
+        if (payload == null || max <= 0 || payload.length() <= max) {
+            return payload;
+        }
+        return payload.substring(0, max) + "... [truncated, " + payload.length() + " chars total]";
+    }
+
+    /**
+     * Decodes at most the first maxPayloadLength bytes of a UTF-8 payload
+     * and appends the total length. The buffer position is not changed.
+     */
+    public String truncate(ByteBuffer payload) {
+        int total = payload.remaining();
+        int max = config.maxPayloadLength();
+        int length = max > 0 ? Math.min(total, max) : total;
+        String head;
+        if (payload.hasArray()) {
+            head = new String(payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            payload.get(payload.position(), bytes);
+            head = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return length < total ? head + "... [truncated, " + total + " bytes total]" : head;
+    }
+}
@@ -0,0 +1,244 @@
+package com.wiley.uaxd.mcp.log.control;
+
+import com.wiley.uaxd.mcp.log.entity.LogConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size- and time-based rotation for the log file.
+ * Only the log writer thread calls {@link #rotate}, so the switch to a fresh
+ * file happens between batches and never blocks request threads.
+ * Rotated segments are gzipped and pruned on a separate background thread.
+ * Compression may be cut short when the JVM exits, so on startup leftover temporary
+ * files are deleted and segments that were never compressed are compressed then.
+ */
+public class LogRotator {
+
+    private static final DateTimeFormatter SEGMENT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Leftovers untouched for this long belong to no running compression, not even another process's */
+    private static final long STALE_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    /** After a failed rotation, e.g. a file locked by another process, the next attempt waits this long */
+    static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final LogConfig config;
+    private final ExecutorService compressor;
+    /** Names of the segments this rotator creates: {@code <file>.<timestamp>[-n][.gz]} */
+    private final Pattern segmentPattern;
+    private long nextRotationAt = Long.MAX_VALUE;
+    private long retryAt;
+
+    public LogRotator(LogConfig config) {
+        this.config = config;
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "log-compressor");
+            t.setDaemon(true);
+            return t;
+        });
+        this.segmentPattern = Pattern.compile(Pattern.quote(config.file().getFileName().toString())
+            + "\\.(\\d{8}-\\d{6})(?:-(\\d+))?(" + Pattern.quote(COMPRESSED_SUFFIX) + ")?");
+        compressor.execute(this::recover);
+    }
+
+    /**
+     * Called whenever the writer opens the log file, to schedule the next time-based rotation.
+     */
+    public void segmentOpened(Path file) {
+        long intervalMillis = config.rotateInterval().toMillis();
+        if (intervalMillis <= 0) {
+            nextRotationAt = Long.MAX_VALUE;
+            return;
+        }
+        long openedAt = System.currentTimeMillis();
+        try {
+            openedAt = Files.readAttributes(file, BasicFileAttributes.class).creationTime().toMillis();
+        } catch (IOException e) {
+            // Use current time
+        }
+        nextRotationAt = openedAt + intervalMillis;
+    }
+
+    public boolean shouldRotate(long fileSize) {
+        if (fileSize <= 0 || System.currentTimeMillis() < retryAt) {
+            return false;
+        }
+        long maxBytes = config.rotateMaxBytes();
+        return (maxBytes > 0 && fileSize >= maxBytes) || System.currentTimeMillis() >= nextRotationAt;
+    }
+
+    /**
+     * Renames the current log file to a timestamped segment and schedules its compression.
+     * The caller must have closed its channel to the file.
+     *
+     * @throws IOException if the file could not be renamed; the caller keeps appending to it,
+     *                     and {@link #shouldRotate} holds off for {@link #RETRY_DELAY_MILLIS}
+     */
+    public void rotate(Path file) throws IOException {
+        Path segment = segmentName(file);
+        try {
+            try {
+                Files.move(file, segment, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(file, segment);
+            }
+        } catch (IOException e) {
+            retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+            throw e;
+        }
+        retryAt = 0;
+        compressor.execute(() -> compress(segment));
+    }
+
+    private Path segmentName(Path file) {
+        String base = file.getFileName() + "." + LocalDateTime.now().format(SEGMENT_FORMAT);
+        Path segment = file.resolveSibling(base);
+        for (int i = 1; Files.exists(segment) || Files.exists(compressedName(segment)); i++) {
+            segment = file.resolveSibling(base + "-" + i);
+        }
+        return segment;
+    }
+
+    private void compress(Path segment) {
+        Path target = compressedName(segment);
+        Path temp = tempName(target);
+        try {
+            try (InputStream in = Files.newInputStream(segment);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(segment);
+        } catch (IOException e) {
+            // Leave the uncompressed segment in place
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Ignore
+            }
+        }
+        pruneSegments();
+    }
+
+    /**
+     * Deletes temporary files of compressions that did not finish and compresses their segments,
+     * along with any other segment left uncompressed, e.g. by an earlier process that was killed.
+     */
+    private void recover() {
+        long staleBefore = System.currentTimeMillis() - STALE_AFTER_MILLIS;
+        for (Path segment : segments()) {
+            if (segment.getFileName().toString().endsWith(COMPRESSED_SUFFIX)) {
+                continue;
+            }
+            Path temp = tempName(compressedName(segment));
+            if (isStale(segment, staleBefore) && (!Files.exists(temp) || isStale(temp, staleBefore))) {
+                compress(segment);
+            }
+        }
+        try (Stream<Path> files = Files.list(directory())) {
+            files.filter(p -> isTempName(p) && isStale(p, staleBefore)).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            });
+        } catch (IOException e) {
+            // Ignore
+        }
+        pruneSegments();
+    }
+
+    private void pruneSegments() {
+        List<Path> segments = segments().stream()
+            .sorted(Comparator.comparing(this::segmentOrder).reversed())
+            .toList();
+        for (int i = config.retainSegments(); i < segments.size(); i++) {
+            try {
+                Files.deleteIfExists(segments.get(i));
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Rotated segments of the log file, compressed or not; every file this rotator renamed or wrote.
+     */
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory())) {
+            return files.filter(p -> segmentPattern.matcher(p.getFileName().toString()).matches()).toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Sorts segments by creation: by timestamp, then by the counter of segments from the same second.
+     * Plain name order would put {@code <ts>-1} before {@code <ts>}, which it follows.
+     */
+    private String segmentOrder(Path segment) {
+        Matcher m = segmentPattern.matcher(segment.getFileName().toString());
+        if (!m.matches()) {
+            return "";
+        }
+        String counter = m.group(2) != null ? m.group(2) : "0";
+        return m.group(1) + "-" + "0".repeat(Math.max(0, 10 - counter.length())) + counter;
+    }
+
+    private boolean isTempName(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(TEMP_SUFFIX)
+            && segmentPattern.matcher(name.substring(0, name.length() - TEMP_SUFFIX.length())).matches();
+    }
+
+    private Path directory() {
+        return config.file().toAbsolutePath().getParent();
+    }
+
+    private static boolean isStale(Path path, long staleBefore) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() < staleBefore;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path compressedName(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    private static Path tempName(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Waits for pending compressions to finish.
+     */
+    public void close() {
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.wiley.uaxd.mcp.log.entity;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Logging configuration, read from {@code uaxd.log.*} system properties.
+ */
+public record LogConfig(
+    Path file,
+    int capacity,
+    OverflowPolicy overflowPolicy,
+    int sampleRate,
+    int batchSize,
+    LogLevel level,
+    int maxPayloadLength,
+    Map<String, Integer> payloadSampleRates,
+    long rotateMaxBytes,
+    Duration rotateInterval,
+    int retainSegments
+) {
+    public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), "uaxd-mcp.log");
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    public static final int DEFAULT_MAX_PAYLOAD_LENGTH = 2048;
+    public static final long DEFAULT_ROTATE_MAX_BYTES = 50L * 1024 * 1024;
+    public static final Duration DEFAULT_ROTATE_INTERVAL = Duration.ofDays(1);
+    public static final int DEFAULT_RETAIN_SEGMENTS = 10;
+
+    /** Sample rate key that applies to methods without their own entry */
+    public static final String ANY_METHOD = "*";
+
+    public static LogConfig fromSystemProperties() {
+        String file = System.getProperty("uaxd.log.file");
+        return new LogConfig(
+            file != null && !file.isBlank() ? Path.of(file) : DEFAULT_FILE,
+            intProperty("uaxd.log.capacity", DEFAULT_CAPACITY),
+            overflowPolicy(System.getProperty("uaxd.log.overflow")),
+            Math.max(1, intProperty("uaxd.log.sampleRate", DEFAULT_SAMPLE_RATE)),
+            Math.max(1, intProperty("uaxd.log.batchSize", DEFAULT_BATCH_SIZE)),
+            LogLevel.parse(System.getProperty("uaxd.log.level"), LogLevel.INFO),
+            intProperty("uaxd.log.payload.maxLength", DEFAULT_MAX_PAYLOAD_LENGTH),
+            sampleRates(System.getProperty("uaxd.log.payload.sample")),
+            longProperty("uaxd.log.rotate.maxBytes", DEFAULT_ROTATE_MAX_BYTES),
+            durationProperty("uaxd.log.rotate.interval", DEFAULT_ROTATE_INTERVAL),
+            Math.max(0, intProperty("uaxd.log.rotate.retain", DEFAULT_RETAIN_SEGMENTS))
+        );
+    }
+
+    /**
+     * Returns the payload sample rate for a method: 1 logs every payload, N logs one in N.
+     */
+    public int payloadSampleRate(String method) {
+        Integer rate = method != null ? payloadSampleRates.get(method) : null;
+        if (rate == null) {
+            rate = payloadSampleRates.getOrDefault(ANY_METHOD, 1);
+        }
+        return rate;
+    }
+
+    private static OverflowPolicy overflowPolicy(String value) {
+        if (value == null || value.isBlank()) {
+            return OverflowPolicy.DROP;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OverflowPolicy.DROP;
+        }
+    }
+
+    /**
+     * Parses "tools/call=10,tools/list=100,*=1" into a method to rate map.
+     */
+    static Map<String, Integer> sampleRates(String value) {
+        Map<String, Integer> rates = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return Map.of();
+        }
+        for (String entry : value.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) continue;
+            try {
+                int rate = Integer.parseInt(entry.substring(eq + 1).trim());
+                rates.put(entry.substring(0, eq).trim(), Math.max(1, rate));
+            } catch (NumberFormatException e) {
+                // Skip malformed entry
+            }
+        }
+        return Map.copyOf(rates);
+    }
+
+    static long longProperty(String name, long defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Parses an ISO-8601 duration such as "PT6H" or "P1D"; "0" disables the interval.
+     */
+    static Duration durationProperty(String name, Duration defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        if ("0".equals(value.trim())) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            return defaultValue;
+        }
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
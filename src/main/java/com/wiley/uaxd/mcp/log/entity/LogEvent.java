@@ -0,0 +1,11 @@
+package com.wiley.uaxd.mcp.log.entity;
+
+/**
+ * A single log event waiting in the ring buffer to be formatted and written.
+ */
+public record LogEvent(
+    long timestamp,
+    String level,
+    String message
+) {
+}
@@ -0,0 +1,23 @@
+package com.wiley.uaxd.mcp.log.entity;
+
+/**
+ * Log severity, in increasing order. Request and response payloads are logged at INFO.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    public static LogLevel parse(String value, LogLevel defaultLevel) {
+        if (value == null || value.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.wiley.uaxd.mcp.log.entity;
+
+/**
+ * What the asynchronous log writer does when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the event and count it as dropped */
+    DROP,
+
+    /** Wait until the writer frees a slot */
+    BLOCK,
+
+    /** Keep one in every N events once the buffer is nearly full */
+    SAMPLE
+}
@@ -0,0 +1,156 @@
+package com.wiley.uaxd.mcp.reliability.control;
+
+import com.wiley.uaxd.mcp.log.boundary.Log;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load shedding: limits the requests running at once per method and per tool.
+ * A request over the limit waits in a short bounded queue for a free slot; when the
+ * queue is full or the wait runs out, it is rejected at once instead of piling onto
+ * the upstream services. Methods and tools without a limit are always admitted.
+ */
+public class AdmissionController {
+
+    /** What a rejected client is told to wait before retrying */
+    public static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    public static final AdmissionController UNLIMITED = new AdmissionController(Map.of(), 0, Duration.ZERO);
+
+    private final Map<String, Gate> gates = new LinkedHashMap<>();
+    private final int queueSize;
+    private final long maxWaitNanos;
+
+    /**
+     * @param limits concurrent requests per method name or tool name
+     * @param queueSize requests that may wait for a slot, per method or tool
+     * @param maxWait longest wait for a slot before the request is rejected
+     */
+    public AdmissionController(Map<String, Integer> limits, int queueSize, Duration maxWait) {
+        limits.forEach((name, limit) -> gates.put(name, new Gate(name, limit)));
+        this.queueSize = queueSize;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Admits a request to its method and, if given, its tool. An admitted request closes
+     * the permit when it is done.
+     */
+    public Permit admit(String method, String tool) {
+        Gate methodGate = gates.get(method);
+        if (methodGate != null && !methodGate.enter()) {
+            return Permit.rejectedBy(method);
+        }
+        Gate toolGate = tool != null ? gates.get(tool) : null;
+        if (toolGate != null && !toolGate.enter()) {
+            if (methodGate != null) {
+                methodGate.leave();
+            }
+            return Permit.rejectedBy(tool);
+        }
+        return methodGate == null && toolGate == null ? Permit.NONE : new Permit(methodGate, toolGate, null);
+    }
+
+    public boolean isEmpty() {
+        return gates.isEmpty();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Gate gate : gates.values()) {
+            if (!first) sb.append(",");
+            first = false;
+            sb.append("\"").append(gate.name).append("\":").append(gate.toJson());
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Held while an admitted request runs; a rejected permit names the method or tool at its limit.
+     */
+    public record Permit(Gate method, Gate tool, String rejectedBy) implements AutoCloseable {
+        static final Permit NONE = new Permit(null, null, null);
+
+        static Permit rejectedBy(String name) {
+            return new Permit(null, null, name);
+        }
+
+        public boolean isAdmitted() {
+            return rejectedBy == null;
+        }
+
+        @Override
+        public void close() {
+            if (tool != null) {
+                tool.leave();
+            }
+            if (method != null) {
+                method.leave();
+            }
+        }
+    }
+
+    /**
+     * Slots and wait queue of one method or tool.
+     */
+    public final class Gate {
+        private final String name;
+        private final int limit;
+        private final Semaphore slots;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Gate(String name, int limit) {
+            this.name = name;
+            this.limit = limit;
+            this.slots = new Semaphore(limit, true);
+        }
+
+        boolean enter() {
+            if (slots.tryAcquire()) {
+                admitted.increment();
+                return true;
+            }
+            if (queued.incrementAndGet() > queueSize) {
+                queued.decrementAndGet();
+                return reject("queue full");
+            }
+            try {
+                if (slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    admitted.increment();
+                    return true;
+                }
+                return reject("no slot within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return reject("interrupted");
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void leave() {
+            slots.release();
+        }
+
+        private boolean reject(String reason) {
+            rejected.increment();
+            Log.info(() -> "Rejected " + name + ": " + limit + " running, " + reason);
+            return false;
+        }
+
+        String toJson() {
+            return String.format("""
+                {"limit": %d, "active": %d, "queued": %d, "admitted": %d, "rejected": %d}""",
+                limit, limit - slots.availablePermits(), queued.get(), admitted.sum(), rejected.sum());
+        }
+    }
+}
@@ -101,14 +101,14 @@ public class HealthChecker {
 
             if (response.statusCode() >= 200 && response.statusCode() < 300) {
                 registry.recordSuccess(serviceName);
-                Log.debug("Health check passed: " + serviceName);
+                Log.debug(() -> "Health check passed: " + serviceName);
             } else {
                 registry.recordFailure(serviceName);
                 Log.info("Health check failed: " + serviceName + " (status: " + response.statusCode() + ")");
             }
         } catch (Exception e) {
             registry.recordFailure(serviceName);
-            Log.debug("Health check error: " + serviceName + " - " + e.getMessage());
+            Log.debug(() -> "Health check error: " + serviceName + " - " + e.getMessage());
         }
     }
 
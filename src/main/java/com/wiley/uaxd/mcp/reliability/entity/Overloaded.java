@@ -0,0 +1,31 @@
+package com.wiley.uaxd.mcp.reliability.entity;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
+
+import java.time.Duration;
+
+/**
+ * Error response for a request shed by admission control; {@code limited} is the method
+ * or tool that was at its limit. HTTP answers it with 503 and Retry-After; STDIO writes it
+ * like any other error.
+ */
+public record Overloaded(Object id, String limited, Duration retryAfter) implements JsonWritable {
+
+    public static final int CODE = -32003;
+
+    @Override
+    public void writeTo(JsonWriter writer) {
+        writer.beginObject()
+            .name("jsonrpc").value("2.0")
+            .name("id").id(id)
+            .name("error").beginObject()
+                .name("code").value(CODE)
+                .name("message").value("Server overloaded: " + limited + ", retry later")
+                .name("data").beginObject()
+                    .name("retryAfterSeconds").value(retryAfter.toSeconds())
+                .endObject()
+            .endObject()
+            .endObject();
+    }
+}
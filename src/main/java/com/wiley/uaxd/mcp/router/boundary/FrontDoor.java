@@ -1,131 +1,138 @@
 package com.wiley.uaxd.mcp.router.boundary;
 
 import com.wiley.uaxd.mcp.base.control.MessageSender;
+import com.wiley.uaxd.mcp.base.control.StdinFrameReader;
 import com.wiley.uaxd.mcp.jsonrpc.entity.JsonParser;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCEnvelope;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
 import com.wiley.uaxd.mcp.log.boundary.Log;
-import com.wiley.uaxd.mcp.router.entity.Capability;
-import com.wiley.uaxd.mcp.router.entity.MCPRequest;
+import com.wiley.uaxd.mcp.router.control.Dispatcher;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 /**
- * Main router that dispatches JSON-RPC requests to handlers.
+ * STDIO transport: reads JSON-RPC lines from stdin, hands them to the {@link Dispatcher}
+ * and writes the responses through the {@link MessageSender}.
  */
 public class FrontDoor {
 
     private final MessageSender sender;
-    private final List<RequestHandler> handlers = new ArrayList<>();
+    private final Dispatcher dispatcher;
+    private final int maxInFlight;
+    private final int maxMessageBytes;
 
-    public FrontDoor(MessageSender sender) {
-        this.sender = sender;
-    }
-
-    public FrontDoor addHandler(RequestHandler handler) {
-        handlers.add(handler);
-        return this;
+    public FrontDoor(MessageSender sender, Dispatcher dispatcher) {
+        this(sender, dispatcher, ServerConfig.DEFAULT_MAX_IN_FLIGHT, ServerConfig.DEFAULT_MAX_MESSAGE_BYTES);
     }
 
-    public List<Capability> capabilities() {
-        return handlers.stream()
-            .map(RequestHandler::capability)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .toList();
+    public FrontDoor(MessageSender sender, Dispatcher dispatcher, int maxInFlight, int maxMessageBytes) {
+        this.sender = sender;
+        this.dispatcher = dispatcher;
+        this.maxInFlight = maxInFlight;
+        this.maxMessageBytes = maxMessageBytes;
     }
 
+    /**
+     * Reads stdin line by line and processes each request on its own virtual thread,
+     * so a slow tool call never holds up later requests. At most
+     * {@code --max-in-flight} requests run at once; beyond that the reader waits,
+     * and a client that keeps writing blocks on the full pipe. Lines longer than
+     * {@code --max-message} bytes are skipped and answered with an error.
+     */
     public void start() {
         Log.info("UAXD MCP Server starting...");
-        Log.info("Registered " + handlers.size() + " handlers");
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
-                processLine(line);
+        Log.info("Registered " + dispatcher.methodCount() + " methods");
+        Log.info("Max in-flight requests: " + maxInFlight);
+        Log.info("Max message size: " + maxMessageBytes + " bytes");
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        StdinFrameReader reader = new StdinFrameReader(maxMessageBytes, this::rejectOversized);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ByteBuffer frame;
+            while ((frame = reader.next()) != null) {
+                inFlight.acquire();
+                ByteBuffer request = frame;
+                executor.execute(() -> {
+                    try {
+                        processFrame(request);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
             }
+            Log.info("stdin closed, waiting for in-flight requests");
         } catch (IOException e) {
             Log.error("Error reading stdin", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
         Log.info("UAXD MCP Server stopped");
     }
 
-    private void processLine(String line) {
-        Log.request(line);
-
-        try {
-            Map<String, Object> json = JsonParser.parseObject(line);
-            if (json.isEmpty()) {
-                // Can't parse - log error but don't respond (no valid id)
-                Log.error("Failed to parse JSON request");
-                return;
-            }
-
-            // Validate JSON-RPC format
-            String jsonrpc = (String) json.get("jsonrpc");
-            Object id = json.get("id");
-
-            if (!"2.0".equals(jsonrpc)) {
-                if (isValidId(id)) {
-                    sender.sendInvalidRequest(id);
-                } else {
-                    Log.error("Invalid JSON-RPC version and no valid id");
-                }
-                return;
-            }
-
-            String method = (String) json.get("method");
-            if (method == null || method.isBlank()) {
-                if (isValidId(id)) {
-                    sender.sendInvalidRequest(id);
-                } else {
-                    Log.error("Missing method and no valid id");
-                }
-                return;
-            }
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> params = (Map<String, Object>) json.get("params");
+    /**
+     * Handles one message: the UTF-8 bytes of a line without its terminator.
+     */
+    void processFrame(ByteBuffer message) {
+        if (JsonParser.isBatch(message)) {
+            processBatch(message);
+            return;
+        }
 
-            MCPRequest request = new MCPRequest(id, method, params, line);
-            dispatchRequest(request);
+        JsonRPCEnvelope envelope = JsonParser.parseEnvelope(message);
+        if (envelope == null) {
+            // Can't parse - log error but don't respond (no valid id)
+            Log.request(null, message);
+            Log.error("Failed to parse JSON request");
+            return;
+        }
 
-        } catch (Exception e) {
-            Log.error("Error processing request", e);
+        Log.request(envelope.method(), message);
+        JsonWritable response = dispatcher.dispatch(this, envelope, sender::send);
+        if (response == null) {
+            return;
+        }
+        if (!Dispatcher.isValidId(envelope.id())) {
             // Don't respond if we don't have a valid request id
+            Log.error("Invalid request and no valid id");
+            return;
         }
+        sender.send(response);
     }
 
-    private boolean isValidId(Object id) {
-        return id != null && (id instanceof String || id instanceof Number);
+    /**
+     * The id of a skipped message is unknown, so the error goes out with a null id.
+     */
+    private void rejectOversized(long length) {
+        Log.error(() -> "Message of " + length + " bytes exceeds the limit of " + maxMessageBytes + " bytes, skipped");
+        sender.sendError(null, -32600, "Invalid Request: message of " + length + " bytes exceeds the limit of "
+            + maxMessageBytes + " bytes");
     }
 
-    private void dispatchRequest(MCPRequest request) {
-        // Check if this is a notification (no id means no response expected)
-        boolean isNotification = !isValidId(request.id());
-
-        for (RequestHandler handler : handlers) {
-            try {
-                if (handler.handleRequest(request)) {
-                    return; // Request was handled
-                }
-            } catch (Exception e) {
-                Log.error("Handler error: " + handler.getClass().getSimpleName(), e);
-                if (!isNotification) {
-                    sender.sendInternalError(request.id(), e.getMessage());
-                }
-                return;
-            }
+    /**
+     * The non-empty responses of a batch go out as one array line, in request order.
+     */
+    private void processBatch(ByteBuffer message) {
+        List<JsonRPCEnvelope> entries = JsonParser.parseBatch(message);
+        Log.request(null, message);
+        if (entries == null) {
+            Log.error("Failed to parse JSON batch");
+            return;
+        }
+        if (entries.isEmpty()) {
+            sender.sendInvalidRequest(null);
+            return;
         }
 
-        // No handler found - only respond if not a notification
-        if (!isNotification) {
-            sender.sendMethodNotFound(request.id(), request.method());
-        } else {
-            Log.error("No handler found for notification: " + request.method());
+        List<JsonWritable> responses = dispatcher.dispatchBatch(this, entries);
+        if (!responses.isEmpty()) {
+            sender.sendBatch(responses);
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.wiley.uaxd.mcp.router.boundary;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.router.entity.MCPRequest;
+
+import java.util.function.Consumer;
+
+/**
+ * Handles a single MCP method.
+ */
+@FunctionalInterface
+public interface MethodHandler {
+
+    /**
+     * Returns the response, or null if there is nothing to send.
+     * Notifications emitted on the way, such as progress, go to the given transport;
+     * it is null when the transport cannot deliver them.
+     */
+    JsonWritable handle(MCPRequest request, Consumer<JsonWritable> notifications);
+}
@@ -1,21 +1,20 @@
 package com.wiley.uaxd.mcp.router.boundary;
 
 import com.wiley.uaxd.mcp.router.entity.Capability;
-import com.wiley.uaxd.mcp.router.entity.MCPRequest;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
- * Interface for MCP protocol handlers.
+ * Interface for MCP protocol handlers: a group of methods such as the core protocol or tools.
+ * Handlers are transport-agnostic; they return responses and never write them.
  */
 public interface RequestHandler {
 
     /**
-     * Handles an MCP request.
-     * @param request the parsed request
-     * @return true if the request was handled, false to pass to next handler
+     * The methods this handler answers, by name. Read once when the handler is registered.
      */
-    boolean handleRequest(MCPRequest request);
+    Map<String, MethodHandler> methods();
 
     /**
      * Returns the capability this handler provides, if any.
@@ -0,0 +1,182 @@
+package com.wiley.uaxd.mcp.router.control;
+
+import com.wiley.uaxd.mcp.http.entity.Deadline;
+import com.wiley.uaxd.mcp.jsonrpc.control.InFlightRequests;
+import com.wiley.uaxd.mcp.jsonrpc.control.JsonRPCBatch;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCEnvelope;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.reliability.control.AdmissionController;
+import com.wiley.uaxd.mcp.reliability.entity.Overloaded;
+import com.wiley.uaxd.mcp.router.boundary.MethodHandler;
+import com.wiley.uaxd.mcp.router.boundary.RequestHandler;
+import com.wiley.uaxd.mcp.router.entity.Capability;
+import com.wiley.uaxd.mcp.router.entity.MCPRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Transport-agnostic core shared by STDIO and HTTP: validates JSON-RPC requests,
+ * routes them through a method table built when handlers are registered,
+ * tracks them for cancellation and runs batches.
+ * Methods with a timeout run under a {@link Deadline} bound to the handling thread.
+ * Requests pass the {@link AdmissionController} first and are answered with
+ * {@link Overloaded} when their method or tool is at its limit.
+ * Transports only parse, frame and write.
+ */
+public class Dispatcher {
+
+    private final Map<String, MethodHandler> methods = new HashMap<>();
+    private final List<Capability> capabilities = new ArrayList<>();
+    private final InFlightRequests inFlight = new InFlightRequests();
+    private final Map<String, Duration> timeouts;
+    private final AdmissionController admission;
+
+    public Dispatcher() {
+        this(Map.of());
+    }
+
+    public Dispatcher(Map<String, Duration> timeouts) {
+        this(timeouts, AdmissionController.UNLIMITED);
+    }
+
+    /**
+     * @param timeouts default deadline per method; methods not listed run without one
+     * @param admission concurrency limits per method and tool
+     */
+    public Dispatcher(Map<String, Duration> timeouts, AdmissionController admission) {
+        this.timeouts = Map.copyOf(timeouts);
+        this.admission = admission;
+    }
+
+    /**
+     * Registers all methods of the handler. Handlers must be added before requests arrive.
+     */
+    public Dispatcher addHandler(RequestHandler handler) {
+        handler.methods().forEach((method, methodHandler) -> {
+            if (methods.putIfAbsent(method, methodHandler) != null) {
+                Log.error("Method " + method + " already registered, ignored from " + handler.getClass().getSimpleName());
+            }
+        });
+        handler.capability().ifPresent(capabilities::add);
+        return this;
+    }
+
+    public List<Capability> capabilities() {
+        return Collections.unmodifiableList(capabilities);
+    }
+
+    public int methodCount() {
+        return methods.size();
+    }
+
+    public AdmissionController admission() {
+        return admission;
+    }
+
+    public static boolean isValidId(Object id) {
+        return id instanceof String || id instanceof Number;
+    }
+
+    /**
+     * Handles one request and returns its response, or null if nothing is to be sent:
+     * for notifications and for requests cancelled while they ran.
+     *
+     * @param scope what request ids are unique in: the STDIO connection, the HTTP session,
+     *              or the exchange of a sessionless HTTP request; cancellations only reach its requests
+     */
+    public JsonWritable dispatch(Object scope, JsonRPCEnvelope envelope, Consumer<JsonWritable> notifications) {
+        Object id = envelope.id();
+        String method = envelope.method();
+        if (!envelope.isValidVersion() || method == null || method.isBlank()) {
+            return JsonRPCResponses.error(isValidId(id) ? id : null, -32600, "Invalid Request");
+        }
+
+        boolean isNotification = !isValidId(id);
+        if (isNotification && InFlightRequests.CANCELLED.equals(method)) {
+            // Handled here rather than in the method table, as it needs the scope
+            inFlight.cancel(scope, MCPRequest.of(envelope).params());
+            return null;
+        }
+        MethodHandler handler = methods.get(method);
+        if (handler == null) {
+            if (isNotification) {
+                Log.error(() -> "No handler found for notification: " + method);
+                return null;
+            }
+            return JsonRPCResponses.error(id, -32601, "Method not found: " + method);
+        }
+
+        MCPRequest request = MCPRequest.of(envelope);
+        if (isNotification) {
+            invoke(handler, request, notifications);
+            return null;
+        }
+
+        AdmissionController.Permit permit = admission.admit(method, toolName(request));
+        if (!permit.isAdmitted()) {
+            return new Overloaded(id, permit.rejectedBy(), AdmissionController.RETRY_AFTER);
+        }
+        InFlightRequests.Request tracked = inFlight.register(scope, id);
+        JsonWritable response = null;
+        try (permit) {
+            response = invoke(handler, request, notifications);
+        } finally {
+            if (tracked != null && inFlight.complete(tracked)) {
+                response = null;
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Handles the entries of a batch; see {@link JsonRPCBatch#dispatch}.
+     * Batch entries do not emit notifications.
+     */
+    public List<JsonWritable> dispatchBatch(Object scope, List<JsonRPCEnvelope> entries) {
+        return JsonRPCBatch.dispatch(entries, entry -> dispatch(scope, entry, null));
+    }
+
+    /**
+     * The tool a tools/call request names, so it can be limited on its own; null for other methods.
+     */
+    private String toolName(MCPRequest request) {
+        if (admission.isEmpty() || !"tools/call".equals(request.method())) {
+            return null;
+        }
+        Map<String, Object> params = request.params();
+        return params != null && params.get("name") instanceof String name ? name : null;
+    }
+
+    private JsonWritable invoke(MethodHandler handler, MCPRequest request, Consumer<JsonWritable> notifications) {
+        Duration timeout = timeouts.get(request.method());
+        if (timeout == null) {
+            return handle(handler, request, notifications);
+        }
+        Deadline deadline = Deadline.of(timeout, request.params());
+        return Deadline.callWith(deadline, () -> handle(handler, request, notifications));
+    }
+
+    /**
+     * An exceeded deadline becomes a -32000 error. Handlers whose result has its own error shape,
+     * like tools/call with its tool results, catch it themselves so a timeout always looks the same.
+     */
+    private JsonWritable handle(MethodHandler handler, MCPRequest request, Consumer<JsonWritable> notifications) {
+        try {
+            return handler.handle(request, notifications);
+        } catch (Deadline.ExceededException e) {
+            Log.info(() -> "Request timed out: " + request.method() + " - " + e.getMessage());
+            return JsonRPCResponses.error(request.id(), -32000, "Request timed out: " + e.getMessage());
+        } catch (Exception e) {
+            Log.error(() -> "Handler error: " + request.method() + " - " + e.getMessage());
+            return JsonRPCResponses.error(request.id(), -32603, "Internal error: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.wiley.uaxd.mcp.router.entity;
 
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
+
+import java.util.List;
+
 /**
  * Represents an MCP server capability.
  */
@@ -13,6 +17,21 @@ public record Capability(String name, boolean listChanged) {
         return new Capability(name, listChanged);
     }
 
+    /**
+     * Writes the capabilities object of an initialize result.
+     */
+    public static void writeAll(JsonWriter writer, List<Capability> capabilities) {
+        writer.beginObject();
+        for (Capability cap : capabilities) {
+            writer.name(cap.name()).beginObject();
+            if (cap.listChanged()) {
+                writer.name("listChanged").value(true);
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
     public String toJson() {
         if (listChanged) {
             return String.format("{\"%s\": {\"listChanged\": true}}", name);
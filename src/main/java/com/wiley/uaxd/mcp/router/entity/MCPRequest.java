@@ -1,16 +1,23 @@
 package com.wiley.uaxd.mcp.router.entity;
 
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCEnvelope;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCParams;
+
 import java.util.Map;
 
 /**
  * Represents a parsed MCP JSON-RPC request.
+ * Params stay unparsed until a handler calls {@link #params()}.
  */
 public record MCPRequest(
     Object id,
     String method,
-    Map<String, Object> params,
-    String rawJson
+    JsonRPCParams lazyParams
 ) {
+    public static MCPRequest of(JsonRPCEnvelope envelope) {
+        return new MCPRequest(envelope.id(), envelope.method(), envelope.params());
+    }
+
     public boolean hasId() {
         return id != null;
     }
@@ -21,4 +28,11 @@ public record MCPRequest(
         }
         return 0;
     }
+
+    /**
+     * Parsed params, or null if the request has none.
+     */
+    public Map<String, Object> params() {
+        return lazyParams != null ? lazyParams.asMap() : null;
+    }
 }
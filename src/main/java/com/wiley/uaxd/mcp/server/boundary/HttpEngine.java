@@ -0,0 +1,34 @@
+package com.wiley.uaxd.mcp.server.boundary;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.wiley.uaxd.mcp.server.control.JdkHttpEngine;
+import com.wiley.uaxd.mcp.server.control.NioHttpEngine;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * HTTP/1.1 server underneath {@link McpHttpServer}. Engines differ in how they accept,
+ * read and write connections; handlers see the same {@code HttpExchange} API on every engine
+ * and run on virtual threads. The engine is chosen with {@code --engine}.
+ */
+public interface HttpEngine {
+
+    /**
+     * Binds and starts serving; a request goes to the handler with the longest matching path prefix.
+     */
+    void start(InetSocketAddress address, Map<String, HttpHandler> contexts) throws IOException;
+
+    void stop();
+
+    String name();
+
+    static HttpEngine of(ServerConfig config) {
+        return switch (config.engine()) {
+            case NIO -> new NioHttpEngine(config);
+            case JDK -> new JdkHttpEngine(config);
+        };
+    }
+}
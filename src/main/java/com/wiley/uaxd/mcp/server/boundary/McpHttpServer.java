@@ -1,78 +1,89 @@
 package com.wiley.uaxd.mcp.server.boundary;
 
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpServer;
 import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.router.control.Dispatcher;
 import com.wiley.uaxd.mcp.server.control.ApiKeyAuthenticator;
 import com.wiley.uaxd.mcp.server.control.HttpRequestHandler;
+import com.wiley.uaxd.mcp.server.control.RequestBodyReader;
+import com.wiley.uaxd.mcp.server.control.SessionStore;
+import com.wiley.uaxd.mcp.server.entity.AccessDecision;
 import com.wiley.uaxd.mcp.server.entity.ServerConfig;
 import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.concurrent.Executors;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * MCP HTTP Server using Java's built-in HttpServer with virtual threads.
+ * MCP HTTP Server on a pluggable {@link HttpEngine}, handlers on virtual threads.
  */
 public class McpHttpServer {
 
     private final ServerConfig config;
     private final ApiKeyAuthenticator authenticator;
+    private final SessionStore sessions;
     private final HttpRequestHandler requestHandler;
+    private final RequestBodyReader bodyReader;
     private final ServiceRegistry serviceRegistry;
+    private final Dispatcher dispatcher;
     private final AtomicLong requestCounter = new AtomicLong(0);
-    private HttpServer server;
+    private HttpEngine engine;
     private final Instant startTime = Instant.now();
 
-    public McpHttpServer(ServerConfig config, ServiceRegistry serviceRegistry) {
+    public McpHttpServer(ServerConfig config, ServiceRegistry serviceRegistry, Dispatcher dispatcher) {
         this.config = config;
         this.serviceRegistry = serviceRegistry;
+        this.dispatcher = dispatcher;
         this.authenticator = new ApiKeyAuthenticator(config);
-        this.requestHandler = new HttpRequestHandler(serviceRegistry);
+        this.sessions = new SessionStore(config.maxSessions(), config.sessionIdleTimeout());
+        this.requestHandler = new HttpRequestHandler(dispatcher, sessions, config.compressMinBytes());
+        this.bodyReader = new RequestBodyReader(config.maxBodyBytes(), config.bodyReadTimeout());
     }
 
     public void start() throws IOException {
-        server = HttpServer.create(new InetSocketAddress(config.port()), config.backlog());
-
-        // Use virtual threads for high concurrency
-        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
-
-        // Main MCP endpoint
-        server.createContext("/mcp", this::handleMcpRequest);
-
-        // Health check endpoint (no auth required)
-        server.createContext("/mcp/health", this::handleHealthCheck);
-
-        // Status endpoint (no auth required)
-        server.createContext("/mcp/status", this::handleStatus);
-
-        server.start();
+        engine = HttpEngine.of(config);
+        engine.start(new InetSocketAddress(config.port()), Map.of(
+            // Main MCP endpoint
+            "/mcp", this::handleMcpRequest,
+            // Health check endpoint (no auth required)
+            "/mcp/health", this::handleHealthCheck,
+            // Status endpoint (no auth required)
+            "/mcp/status", this::handleStatus
+        ));
+        sessions.start();
 
         Log.info("MCP HTTP Server started on port " + config.port());
-        Log.info("API Key authentication: " + (authenticator.isEnabled() ? "ENABLED" : "DISABLED"));
+        Log.info("API Key authentication: " + (authenticator.isEnabled() ? "ENABLED, " + config.apiKeys() : "DISABLED"));
         Log.info("Virtual threads: ENABLED");
+        Log.info("Sessions: max " + config.maxSessions() + ", idle timeout " + config.sessionIdleTimeout().toSeconds() + "s");
+        Log.info("Request bodies: max " + config.maxBodyBytes() + " bytes, read timeout "
+            + config.bodyReadTimeout().toSeconds() + "s");
+        Log.info("Admission: queue " + config.admissionQueue() + ", wait " + config.admissionWait().toMillis()
+            + "ms, limits " + config.concurrencyLimits());
         Log.info("Endpoints:");
         Log.info("  POST /mcp - JSON-RPC requests");
+        Log.info("  GET  /mcp - Session event stream (Mcp-Session-Id)");
+        Log.info("  DELETE /mcp - End session (Mcp-Session-Id)");
         Log.info("  GET  /mcp/health - Health check");
         Log.info("  GET  /mcp/status - Service status");
     }
 
     public void stop() {
-        if (server != null) {
-            server.stop(0);
+        sessions.stop();
+        if (engine != null) {
+            engine.stop();
             Log.info("MCP HTTP Server stopped");
         }
     }
 
     private void handleMcpRequest(HttpExchange exchange) throws IOException {
         long reqId = requestCounter.incrementAndGet();
-        Log.info("[Req#" + reqId + "] " + exchange.getRequestMethod() + " /mcp from " +
+        Log.info(() -> "[Req#" + reqId + "] " + exchange.getRequestMethod() + " /mcp from " +
                  exchange.getRemoteAddress());
 
         try {
@@ -85,28 +96,45 @@ public class McpHttpServer {
 
             addCorsHeaders(exchange);
 
-            // Authenticate
-            if (!authenticator.authenticate(exchange)) {
-                Log.info("[Req#" + reqId + "] Unauthorized - invalid or missing API key");
+            // Authenticate and apply the key's rate limit
+            AccessDecision access = authenticator.authenticate(exchange);
+            if (access == AccessDecision.UNAUTHORIZED) {
+                Log.info(() -> "[Req#" + reqId + "] Unauthorized - invalid or missing API key");
                 sendUnauthorized(exchange);
                 return;
             }
+            if (access == AccessDecision.RATE_LIMITED) {
+                Log.info(() -> "[Req#" + reqId + "] Rate limited - client " + authenticator.clientName(exchange));
+                sendRateLimited(exchange);
+                return;
+            }
 
-            // Only accept POST for JSON-RPC
+            // GET opens a session stream, DELETE ends a session, POST carries JSON-RPC
+            if ("GET".equals(exchange.getRequestMethod())) {
+                requestHandler.handleStream(exchange);
+                return;
+            }
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                requestHandler.handleDelete(exchange);
+                return;
+            }
             if (!"POST".equals(exchange.getRequestMethod())) {
                 sendError(exchange, 405, "Method Not Allowed");
                 return;
             }
 
-            // Read request body
-            String requestBody;
-            try (InputStream is = exchange.getRequestBody()) {
-                requestBody = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            // Read request body into a pooled buffer; it is parsed as UTF-8 bytes, never decoded as a whole
+            try (RequestBodyReader.Body body = bodyReader.read(exchange)) {
+                // Process the JSON-RPC request
+                requestHandler.handleRequest(exchange, body.buffer());
             }
 
-            // Process the JSON-RPC request
-            requestHandler.handleRequest(exchange, requestBody);
-
+        } catch (RequestBodyReader.TooLarge e) {
+            Log.info(() -> "[Req#" + reqId + "] " + e.getMessage());
+            exchange.getResponseHeaders().set("Connection", "close");
+            sendError(exchange, 413, e.getMessage());
+        } catch (RequestBodyReader.TimedOut e) {
+            Log.info(() -> "[Req#" + reqId + "] " + e.getMessage() + " from " + exchange.getRemoteAddress());
         } catch (Exception e) {
             Log.error("[Req#" + reqId + "] Error", e);
             sendError(exchange, 500, "Internal Server Error");
@@ -152,9 +180,14 @@ public class McpHttpServer {
                 "version": "1.0.0",
                 "uptime_seconds": %d,
                 "requests_processed": %d,
+                "active_sessions": %d,
+                "engine": "%s",
                 "virtual_threads": true,
+                "admission": %s,
+                "api_keys": %s,
                 "services": %s
-            }""", uptime, requestCounter.get(), serviceStatuses);
+            }""", uptime, requestCounter.get(), requestHandler.activeSessions(), engine.name(),
+            dispatcher.admission().toJson(), authenticator.toJson(), serviceStatuses);
 
         byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().set("Content-Type", "application/json");
@@ -168,8 +201,9 @@ public class McpHttpServer {
     private void addCorsHeaders(HttpExchange exchange) {
         var headers = exchange.getResponseHeaders();
         headers.set("Access-Control-Allow-Origin", "*");
-        headers.set("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
-        headers.set("Access-Control-Allow-Headers", "Content-Type, Accept, X-API-Key, Mcp-Session-Id");
+        headers.set("Access-Control-Allow-Methods", "GET, POST, DELETE, OPTIONS");
+        headers.set("Access-Control-Allow-Headers", "Content-Type, Accept, X-API-Key, Mcp-Session-Id, If-None-Match");
+        headers.set("Access-Control-Expose-Headers", "ETag, Mcp-Session-Id, Retry-After, X-RateLimit-Limit, X-RateLimit-Remaining, X-RateLimit-Reset");
     }
 
     private void sendUnauthorized(HttpExchange exchange) throws IOException {
@@ -182,6 +216,16 @@ public class McpHttpServer {
         }
     }
 
+    private void sendRateLimited(HttpExchange exchange) throws IOException {
+        String response = "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32029,\"message\":\"Rate limit exceeded for this API key\"},\"id\":null}";
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(429, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
     private void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
         String response = "{\"error\":\"" + message + "\"}";
         byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
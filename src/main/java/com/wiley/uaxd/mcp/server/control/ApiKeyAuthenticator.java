@@ -1,31 +1,106 @@
 package com.wiley.uaxd.mcp.server.control;
 
 import com.sun.net.httpserver.HttpExchange;
+import com.wiley.uaxd.mcp.server.entity.AccessDecision;
+import com.wiley.uaxd.mcp.server.entity.ApiKey;
 import com.wiley.uaxd.mcp.server.entity.ServerConfig;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Authenticates requests using X-API-Key header.
+ * Authenticates requests using X-API-Key header. Every key has its own {@link TokenBucket},
+ * so one noisy client is limited without slowing down the others. Responses to limited
+ * keys carry {@code X-RateLimit-*} headers.
  */
 public class ApiKeyAuthenticator {
 
     private static final String API_KEY_HEADER = "X-API-Key";
-    private final String validApiKey;
+
+    private final Map<String, Client> clientsByKey = new HashMap<>();
+    private final Map<String, Client> clientsByName = new LinkedHashMap<>();
+
+    /**
+     * A key's bucket, null if it is unlimited, and its usage.
+     */
+    private record Client(ApiKey apiKey, TokenBucket bucket, LongAdder allowed, LongAdder rejected) {
+    }
 
     public ApiKeyAuthenticator(ServerConfig config) {
-        this.validApiKey = config.apiKey();
+        for (ApiKey apiKey : config.apiKeys()) {
+            TokenBucket bucket = apiKey.isLimited() ? new TokenBucket(apiKey.ratePerSecond(), apiKey.burst()) : null;
+            Client client = new Client(apiKey, bucket, new LongAdder(), new LongAdder());
+            clientsByKey.put(apiKey.key(), client);
+            clientsByName.put(apiKey.name(), client);
+        }
     }
 
-    public boolean authenticate(HttpExchange exchange) {
-        if (validApiKey == null || validApiKey.isBlank()) {
+    public AccessDecision authenticate(HttpExchange exchange) {
+        if (clientsByKey.isEmpty()) {
             // No API key configured, allow all requests
-            return true;
+            return AccessDecision.ALLOWED;
         }
 
         String providedKey = exchange.getRequestHeaders().getFirst(API_KEY_HEADER);
-        return validApiKey.equals(providedKey);
+        Client client = providedKey != null ? clientsByKey.get(providedKey) : null;
+        if (client == null) {
+            return AccessDecision.UNAUTHORIZED;
+        }
+        TokenBucket bucket = client.bucket();
+        if (bucket == null) {
+            client.allowed().increment();
+            return AccessDecision.ALLOWED;
+        }
+
+        boolean allowed = bucket.tryAcquire();
+        var headers = exchange.getResponseHeaders();
+        headers.set("X-RateLimit-Limit", Integer.toString(bucket.burst()));
+        headers.set("X-RateLimit-Remaining", Integer.toString(bucket.remaining()));
+        headers.set("X-RateLimit-Reset", Long.toString(bucket.secondsUntilFull()));
+        if (!allowed) {
+            client.rejected().increment();
+            headers.set("Retry-After", Long.toString(Math.max(1, bucket.secondsUntilNext())));
+            return AccessDecision.RATE_LIMITED;
+        }
+        client.allowed().increment();
+        return AccessDecision.ALLOWED;
+    }
+
+    /**
+     * Name of the client using the request's key, for logging; null if unknown.
+     */
+    public String clientName(HttpExchange exchange) {
+        String providedKey = exchange.getRequestHeaders().getFirst(API_KEY_HEADER);
+        Client client = providedKey != null ? clientsByKey.get(providedKey) : null;
+        return client != null ? client.apiKey().name() : null;
     }
 
     public boolean isEnabled() {
-        return validApiKey != null && !validApiKey.isBlank();
+        return !clientsByKey.isEmpty();
+    }
+
+    public int keyCount() {
+        return clientsByKey.size();
+    }
+
+    /**
+     * Usage per client name; keys are never included.
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Client client : clientsByName.values()) {
+            if (!first) sb.append(",");
+            first = false;
+            sb.append("\"").append(client.apiKey().name()).append("\":");
+            TokenBucket bucket = client.bucket();
+            sb.append(String.format("""
+                {"rate_per_second": %s, "burst": %d, "remaining": %d, "allowed": %d, "rejected": %d}""",
+                client.apiKey().ratePerSecond(), client.apiKey().burst(), bucket != null ? bucket.remaining() : -1,
+                client.allowed().sum(), client.rejected().sum()));
+        }
+        return sb.append("}").toString();
     }
 }
@@ -0,0 +1,45 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bytes that request bodies may hold at once, across all connections of an engine.
+ * Buffers are reserved as they grow, so memory follows the bytes that actually arrived,
+ * not the lengths that clients announce.
+ */
+final class BufferBudget {
+
+    private final long maxBytes;
+    private final AtomicLong used = new AtomicLong();
+
+    BufferBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reserves the bytes if they fit; false leaves the budget unchanged.
+     */
+    boolean tryReserve(long bytes) {
+        while (true) {
+            long current = used.get();
+            if (current + bytes > maxBytes) {
+                return false;
+            }
+            if (used.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long bytes) {
+        used.addAndGet(-bytes);
+    }
+
+    long used() {
+        return used.get();
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+}
@@ -1,228 +1,283 @@
 package com.wiley.uaxd.mcp.server.control;
 
 import com.sun.net.httpserver.HttpExchange;
+import com.wiley.uaxd.mcp.jsonrpc.entity.EncodedResult;
 import com.wiley.uaxd.mcp.jsonrpc.entity.JsonParser;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCEnvelope;
 import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
 import com.wiley.uaxd.mcp.log.boundary.Log;
-import com.wiley.uaxd.mcp.router.entity.Capability;
-import com.wiley.uaxd.mcp.tools.control.ToolInstance;
-import com.wiley.uaxd.mcp.tools.control.ToolLocator;
-import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import com.wiley.uaxd.mcp.reliability.entity.Overloaded;
+import com.wiley.uaxd.mcp.router.control.Dispatcher;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
+import com.wiley.uaxd.mcp.server.entity.Session;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * Handles HTTP JSON-RPC requests for MCP protocol.
+ * HTTP transport for MCP: hands JSON-RPC request bodies to the {@link Dispatcher}
+ * and writes the responses. Pre-encoded results (initialize, tools/list) carry an
+ * ETag and are answered with 304 when the client already has them.
+ * <p>
+ * Streamable HTTP sessions: initialize returns an {@value #SESSION_HEADER} header, GET opens the
+ * session's server-to-client event stream and DELETE ends the session. Requests without the header
+ * are served statelessly.
+ * <p>
+ * Requests shed by admission control get 503 with Retry-After.
  */
 public class HttpRequestHandler {
 
-    private static final String PROTOCOL_VERSION = "2024-11-05";
-    private static final String SERVER_NAME = "uaxd-mcp";
-    private static final String SERVER_VERSION = "1.0.0";
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
 
-    private final ServiceRegistry serviceRegistry;
-    private List<ToolInstance> tools;
+    static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(15);
 
-    public HttpRequestHandler(ServiceRegistry serviceRegistry) {
-        this.serviceRegistry = serviceRegistry;
+    private final Dispatcher dispatcher;
+    private final SessionStore sessions;
+    private final int compressMinBytes;
+
+    public HttpRequestHandler(Dispatcher dispatcher) {
+        this(dispatcher, new SessionStore(ServerConfig.DEFAULT_MAX_SESSIONS, ServerConfig.DEFAULT_SESSION_IDLE_TIMEOUT),
+            ServerConfig.DEFAULT_COMPRESS_MIN_BYTES);
     }
 
-    private List<ToolInstance> getTools() {
-        if (tools == null) {
-            tools = ToolLocator.all();
-            Log.info("HTTP handler loaded " + tools.size() + " tools");
-        }
-        return tools;
+    public HttpRequestHandler(Dispatcher dispatcher, SessionStore sessions, int compressMinBytes) {
+        this.dispatcher = dispatcher;
+        this.sessions = sessions;
+        this.compressMinBytes = compressMinBytes;
     }
 
-    public void handleRequest(HttpExchange exchange, String requestBody) throws IOException {
-        Log.request("[HTTP] " + requestBody);
+    /**
+     * Handles a JSON-RPC request, or a batch of them, whose UTF-8 body is the remaining bytes of the buffer.
+     */
+    public void handleRequest(HttpExchange exchange, ByteBuffer requestBody) throws IOException {
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        Session session = sessionId != null ? sessions.get(sessionId) : null;
+        if (sessionId != null && session == null) {
+            sendSessionNotFound(exchange);
+            return;
+        }
 
-        try {
-            Map<String, Object> json = JsonParser.parseObject(requestBody);
-            if (json.isEmpty()) {
-                sendResponse(exchange, 200, JsonRPCResponses.error(null, -32700, "Parse error"));
-                return;
-            }
+        if (JsonParser.isBatch(requestBody)) {
+            handleBatch(exchange, scopeOf(exchange, session), requestBody);
+            return;
+        }
 
-            String jsonrpc = (String) json.get("jsonrpc");
-            if (!"2.0".equals(jsonrpc)) {
-                sendResponse(exchange, 200, JsonRPCResponses.error(json.get("id"), -32600, "Invalid Request"));
-                return;
-            }
+        JsonRPCEnvelope envelope = JsonParser.parseEnvelope(requestBody);
+        if (envelope == null) {
+            Log.request(null, requestBody);
+            sendResponse(exchange, 200, null, JsonRPCResponses.error(null, -32700, "Parse error"));
+            return;
+        }
 
-            String method = (String) json.get("method");
-            if (method == null || method.isBlank()) {
-                sendResponse(exchange, 200, JsonRPCResponses.error(json.get("id"), -32600, "Invalid Request"));
+        Log.request(envelope.method(), requestBody);
+        if (session != null && "initialize".equals(envelope.method())) {
+            // A second session would be left behind by the client and crowd out live ones
+            sendResponse(exchange, 400, envelope.method(), JsonRPCResponses.error(envelope.id(), -32600,
+                "Invalid Request: session " + session.id() + " is already initialized"));
+            return;
+        }
+        if (streamsResponse(exchange, envelope)) {
+            try (SseStream stream = SseStream.deferred(exchange)) {
+                JsonWritable response = dispatcher.dispatch(scopeOf(exchange, session), envelope, stream::send);
+                if (response instanceof Overloaded overloaded && !stream.isOpen()) {
+                    sendOverloaded(exchange, overloaded);
+                } else if (response != null) {
+                    stream.send(response);
+                } else if (!stream.isOpen()) {
+                    sendResponse(exchange, 200, envelope.method(), null);
+                }
+            }
+            return;
+        }
+        JsonWritable response = dispatcher.dispatch(scopeOf(exchange, session), envelope, notificationsOf(session));
+        if (response instanceof Overloaded overloaded) {
+            sendOverloaded(exchange, overloaded);
+            return;
+        }
+        if ("initialize".equals(envelope.method()) && response instanceof EncodedResult.Response) {
+            Session created = sessions.create(envelope.params() != null ? envelope.params().asMap() : null);
+            exchange.getResponseHeaders().set(SESSION_HEADER, created.id());
+        }
+        if (response instanceof EncodedResult.Response cached) {
+            EncodedResult result = cached.result();
+            exchange.getResponseHeaders().set("ETag", result.etag());
+            if (result.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                Log.info(() -> "Not modified: " + envelope.method());
+                exchange.sendResponseHeaders(304, -1);
                 return;
             }
-
-            Object id = json.get("id");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> params = (Map<String, Object>) json.get("params");
-
-            String response = processMethod(id, method, params);
-            sendResponse(exchange, 200, response);
-
-        } catch (Exception e) {
-            Log.error("HTTP handler error", e);
-            sendResponse(exchange, 200, JsonRPCResponses.error(null, -32603, "Internal error: " + e.getMessage()));
         }
+        sendResponse(exchange, 200, envelope.method(), response);
     }
 
-    private String processMethod(Object id, String method, Map<String, Object> params) {
-        return switch (method) {
-            case "initialize" -> handleInitialize(id);
-            case "initialized" -> null; // No response for notifications
-            case "ping" -> JsonRPCResponses.success(id, "{}");
-            case "tools/list" -> handleListTools(id);
-            case "tools/call" -> handleCallTool(id, params);
-            default -> JsonRPCResponses.error(id, -32601, "Method not found: " + method);
-        };
-    }
+    /**
+     * Opens the session's server-to-client event stream and holds it until the client goes away,
+     * the session ends or another GET replaces it. Comments are sent while idle to keep proxies
+     * from closing the connection.
+     */
+    public void handleStream(HttpExchange exchange) throws IOException {
+        if (!acceptsEventStream(exchange)) {
+            sendResponse(exchange, 406, null, JsonRPCResponses.error(null, -32600, "Not Acceptable: text/event-stream required"));
+            return;
+        }
+        Session session = requireSession(exchange);
+        if (session == null) {
+            return;
+        }
 
-    private String handleInitialize(Object id) {
-        Log.info("[HTTP] Handling initialize request");
-
-        List<Capability> caps = List.of(Capability.of("tools", true));
-        StringBuilder capabilities = new StringBuilder("{");
-        for (int i = 0; i < caps.size(); i++) {
-            if (i > 0) capabilities.append(",");
-            Capability cap = caps.get(i);
-            capabilities.append("\"").append(cap.name()).append("\":{");
-            if (cap.listChanged()) {
-                capabilities.append("\"listChanged\":true");
+        SseStream stream = SseStream.open(exchange);
+        session.attach(stream);
+        Log.info(() -> "Session " + session.id() + " stream opened");
+        try {
+            while (!stream.awaitClosed(KEEP_ALIVE_INTERVAL)) {
+                session.touch(System.nanoTime());
+                stream.keepAlive();
             }
-            capabilities.append("}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            session.detach(stream);
+            stream.close();
+            Log.info(() -> "Session " + session.id() + " stream closed");
         }
-        capabilities.append("}");
-
-        String result = String.format("""
-            {
-                "protocolVersion": "%s",
-                "capabilities": %s,
-                "serverInfo": {
-                    "name": "%s",
-                    "version": "%s"
-                }
-            }""", PROTOCOL_VERSION, capabilities, SERVER_NAME, SERVER_VERSION);
-
-        return JsonRPCResponses.success(id, result);
     }
 
-    private String handleListTools(Object id) {
-        Log.info("[HTTP] Handling tools/list request");
-
-        StringBuilder toolsJson = new StringBuilder("[");
-        List<ToolInstance> toolList = getTools();
-        for (int i = 0; i < toolList.size(); i++) {
-            if (i > 0) toolsJson.append(",");
-            toolsJson.append(toolList.get(i).spec().toJson());
+    /**
+     * Ends the session named by the request header.
+     */
+    public void handleDelete(HttpExchange exchange) throws IOException {
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (sessionId == null) {
+            sendResponse(exchange, 400, null, JsonRPCResponses.error(null, -32600, "Missing " + SESSION_HEADER + " header"));
+        } else if (sessions.terminate(sessionId)) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendSessionNotFound(exchange);
         }
-        toolsJson.append("]");
-
-        String result = String.format("{\"tools\":%s}", toolsJson);
-        return JsonRPCResponses.success(id, result);
     }
 
-    @SuppressWarnings("unchecked")
-    private String handleCallTool(Object id, Map<String, Object> params) {
-        Log.info("[HTTP] Handling tools/call request");
-
-        if (params == null) {
-            return JsonRPCResponses.error(id, -32602, "Invalid params: Missing params");
-        }
+    public int activeSessions() {
+        return sessions.size();
+    }
 
-        String toolName = (String) params.get("name");
-        if (toolName == null || toolName.isBlank()) {
-            return JsonRPCResponses.error(id, -32602, "Invalid params: Missing tool name");
+    private Session requireSession(HttpExchange exchange) throws IOException {
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (sessionId == null) {
+            sendResponse(exchange, 400, null, JsonRPCResponses.error(null, -32600, "Missing " + SESSION_HEADER + " header"));
+            return null;
         }
-
-        Map<String, Object> arguments = (Map<String, Object>) params.get("arguments");
-        if (arguments == null) {
-            arguments = Map.of();
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            sendSessionNotFound(exchange);
         }
+        return session;
+    }
 
-        Optional<ToolInstance> toolOpt = getTools().stream()
-            .filter(t -> t.name().equals(toolName))
-            .findFirst();
+    private void sendOverloaded(HttpExchange exchange, Overloaded overloaded) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", Long.toString(overloaded.retryAfter().toSeconds()));
+        sendResponse(exchange, 503, null, overloaded);
+    }
 
-        if (toolOpt.isEmpty()) {
-            return JsonRPCResponses.error(id, -32601, "Tool not found: " + toolName);
-        }
+    private void sendSessionNotFound(HttpExchange exchange) throws IOException {
+        sendResponse(exchange, 404, null, JsonRPCResponses.error(null, -32000, "Session not found"));
+    }
 
-        ToolInstance tool = toolOpt.get();
+    /**
+     * Request ids are unique per session; without one, only within the exchange itself,
+     * so such requests cannot be cancelled by any other client.
+     */
+    private static Object scopeOf(HttpExchange exchange, Session session) {
+        return session != null ? session : exchange;
+    }
 
-        // Check service availability via circuit breaker
-        if (serviceRegistry != null && !serviceRegistry.isServiceAvailable(toolName)) {
-            String unavailableResult = formatToolResult(
-                "Service temporarily unavailable. This tool requires VPN access to internal Wiley services. " +
-                "The service will be retried automatically when connectivity is restored.",
-                true
-            );
-            return JsonRPCResponses.success(id, unavailableResult);
+    /**
+     * Notifications outside a streamed response go to the session's open GET stream, if any.
+     */
+    private static Consumer<JsonWritable> notificationsOf(Session session) {
+        if (session == null) {
+            return null;
         }
+        Session.Stream stream = session.stream();
+        return stream != null ? stream::send : null;
+    }
 
-        try {
-            Map<String, String> result = tool.execute(arguments);
-            String content = result.getOrDefault("content", "");
-            boolean isError = "true".equals(result.get("error"));
-
-            // Track failures for circuit breaker
-            if (isError && serviceRegistry != null) {
-                serviceRegistry.recordFailure(toolName);
-            } else if (serviceRegistry != null) {
-                serviceRegistry.recordSuccess(toolName);
-            }
+    /**
+     * A tools/call is answered as an event stream when the client accepts one:
+     * notifications such as progress first, the response as the last event.
+     */
+    private static boolean streamsResponse(HttpExchange exchange, JsonRPCEnvelope envelope) {
+        return "tools/call".equals(envelope.method()) && acceptsEventStream(exchange);
+    }
 
-            String resultJson = formatToolResult(content, isError);
-            return JsonRPCResponses.success(id, resultJson);
-        } catch (Exception e) {
-            Log.error("Tool execution error: " + toolName, e);
-            if (serviceRegistry != null) {
-                serviceRegistry.recordFailure(toolName);
-            }
-            String errorResult = formatToolResult("Error executing tool: " + e.getMessage(), true);
-            return JsonRPCResponses.success(id, errorResult);
-        }
+    private static boolean acceptsEventStream(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains("text/event-stream");
     }
 
-    private String formatToolResult(String content, boolean isError) {
-        String escapedContent = escapeJson(content);
-        if (isError) {
-            return String.format("""
-                {"content":[{"type":"text","text":"%s"}],"isError":true}""", escapedContent);
+    /**
+     * Batch entries are processed independently; the response array keeps request order
+     * and leaves out notifications. A batch of notifications only is answered with 204.
+     */
+    private void handleBatch(HttpExchange exchange, Object scope, ByteBuffer requestBody) throws IOException {
+        List<JsonRPCEnvelope> entries = JsonParser.parseBatch(requestBody);
+        Log.request(null, requestBody);
+        if (entries == null) {
+            sendResponse(exchange, 200, null, JsonRPCResponses.error(null, -32700, "Parse error"));
+            return;
+        }
+        if (entries.isEmpty()) {
+            sendResponse(exchange, 200, null, JsonRPCResponses.error(null, -32600, "Invalid Request"));
+            return;
         }
-        return String.format("""
-            {"content":[{"type":"text","text":"%s"}]}""", escapedContent);
-    }
 
-    private String escapeJson(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        List<JsonWritable> responses = dispatcher.dispatchBatch(scope, entries);
+        sendResponse(exchange, 200, null, responses.isEmpty() ? null : JsonRPCResponses.batch(responses));
     }
 
-    private void sendResponse(HttpExchange exchange, int statusCode, String body) throws IOException {
+    /**
+     * Encodes the response once into a pooled buffer, so Content-Length is known up front.
+     * Bodies of at least {@code --compress-min} bytes are compressed when the client
+     * accepts it, streamed as chunks since the compressed length is only known at the end.
+     * <p>
+     * The compressor reads from that buffer rather than from a writer streaming into it:
+     * the size decides whether to compress at all, and the log needs the plain bytes.
+     * A response therefore holds its whole encoded size in memory while it is sent,
+     * plus the compressor's {@link ResponseCompression#BUFFER_SIZE} bytes. Buffers up to
+     * 64 KB are pooled; a larger tool result allocates one of its size for that response.
+     */
+    private void sendResponse(HttpExchange exchange, int statusCode, String method, JsonWritable body) throws IOException {
         if (body == null) {
             exchange.sendResponseHeaders(204, -1);
             return;
         }
 
-        Log.response("[HTTP] " + body);
-        byte[] responseBytes = body.getBytes(StandardCharsets.UTF_8);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            body.writeTo(writer);
+            Log.response(method, writer.asByteBuffer());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            String encoding = null;
+            if (writer.size() >= compressMinBytes) {
+                exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+                encoding = ResponseCompression.negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            }
+            if (encoding == null) {
+                exchange.sendResponseHeaders(statusCode, writer.size());
+                try (OutputStream os = exchange.getResponseBody()) {
+                    writer.writeTo(os);
+                }
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+            exchange.sendResponseHeaders(statusCode, 0);
+            try (OutputStream os = ResponseCompression.compress(exchange.getResponseBody(), encoding)) {
+                writer.writeTo(os);
+            }
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.server.boundary.HttpEngine;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Engine on the JDK's built-in {@code com.sun.net.httpserver.HttpServer}: one dispatcher
+ * thread accepts and reads all connections, handlers run on virtual threads.
+ */
+public class JdkHttpEngine implements HttpEngine {
+
+    private final ServerConfig config;
+    private HttpServer server;
+
+    public JdkHttpEngine(ServerConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void start(InetSocketAddress address, Map<String, HttpHandler> contexts) throws IOException {
+        server = HttpServer.create(address, config.backlog());
+
+        // Use virtual threads for high concurrency
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        contexts.forEach(server::createContext);
+        server.start();
+        Log.info("HTTP engine: jdk (backlog " + config.backlog() + ")");
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "jdk";
+    }
+}
@@ -0,0 +1,352 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.Headers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One client connection of the {@link NioHttpEngine}. Heads are read into a small buffer that is
+ * kept across requests, so pipelined requests that arrive together are served one after another.
+ * A body is read into a pooled {@link RequestBodyReader} buffer, which grows as the bytes arrive
+ * and is reserved from the engine's {@link BufferBudget}; a request that would exceed the budget
+ * gets 503. The handler reads the body from that buffer, without another copy.
+ * The channel is always non-blocking. While a handler serves the connection, it is owned by that
+ * handler's virtual thread, which waits on a private selector when the socket buffer is full:
+ * cancelling a request interrupts its thread, which would close a channel blocked in a write.
+ * The time since the first byte of a request that is not complete yet is tracked,
+ * so senders that drip a request slowly can be cut off.
+ */
+final class NioConnection {
+
+    static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    static final int MAX_HEAD_BYTES = 16 * 1024;
+
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    final SocketChannel channel;
+    final InetSocketAddress remoteAddress;
+    final InetSocketAddress localAddress;
+    private final int maxBodyBytes;
+    private final BufferBudget budget;
+    /** Head of the next request, and requests pipelined behind it; never grows */
+    private final ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private OutputStream out;
+    /** Waits for the socket to take more bytes; opened on the first write that does not fit */
+    private Selector writeSelector;
+    private volatile long lastActive = System.nanoTime();
+    /** When the first byte of the incomplete request arrived, or -1 if none is buffered */
+    private long requestStarted = -1;
+
+    /** Head of the request whose body is still arriving, or null */
+    private Request head;
+    /** Body of that request, reserved from the budget and grown as its bytes arrive */
+    private byte[] body;
+    private int bodyLength;
+    private int bodyFilled;
+    private int scanFrom;
+    private boolean continueSent;
+
+    /**
+     * A complete request. The body is empty, not null, when the request has none;
+     * its buffer stays reserved in the engine's budget until the body is closed.
+     */
+    record Request(String method, URI uri, String protocol, Headers headers, RequestBodyReader.Body body,
+                   boolean keepAlive) {
+        Request withBody(RequestBodyReader.Body body) {
+            return new Request(method, uri, protocol, headers, body, keepAlive);
+        }
+
+        boolean expectsContinue() {
+            return "100-continue".equalsIgnoreCase(headers.getFirst("Expect"));
+        }
+    }
+
+    /**
+     * The request cannot be served; answered with the status and the connection closed.
+     */
+    static final class BadRequest extends IOException {
+        final int status;
+
+        BadRequest(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    NioConnection(SocketChannel channel, int maxBodyBytes, BufferBudget budget) throws IOException {
+        this.channel = channel;
+        this.maxBodyBytes = maxBodyBytes;
+        this.budget = budget;
+        this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+        this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /**
+     * Reads what the socket has without blocking; false at end of stream.
+     * While a body is arriving, bytes go straight into it and never past its end,
+     * so a pipelined request behind it stays in the socket.
+     */
+    boolean read() throws IOException {
+        int read;
+        if (head != null) {
+            if (bodyFilled == body.length) {
+                grow();
+            }
+            read = channel.read(ByteBuffer.wrap(body, bodyFilled, Math.min(body.length, bodyLength) - bodyFilled));
+            if (read > 0) {
+                bodyFilled += read;
+            }
+        } else {
+            if (!buffer.hasRemaining()) {
+                return true;
+            }
+            read = channel.read(buffer);
+        }
+        if (read > 0) {
+            lastActive = System.nanoTime();
+            if (requestStarted == -1) {
+                requestStarted = lastActive;
+            }
+        }
+        return read != -1;
+    }
+
+    long idleNanos(long now) {
+        return now - lastActive;
+    }
+
+    void touch() {
+        lastActive = System.nanoTime();
+    }
+
+    /**
+     * How long the buffered, incomplete request has been arriving; 0 if there is none.
+     */
+    long pendingNanos(long now) {
+        return requestStarted == -1 ? 0 : now - requestStarted;
+    }
+
+    /**
+     * Returns the next complete request from the buffered bytes, or null if more are needed.
+     */
+    Request poll() throws BadRequest {
+        if (head == null) {
+            byte[] bytes = buffer.array();
+            int filled = buffer.position();
+            int end = headEnd(bytes, scanFrom, filled);
+            if (end < 0) {
+                if (filled >= MAX_HEAD_BYTES) {
+                    throw new BadRequest(431, "Request header fields too large");
+                }
+                scanFrom = Math.max(0, filled - 3);
+                return null;
+            }
+            Request parsed = parseHead(bytes, end);
+            int length = contentLength(parsed.headers());
+            int headLength = end + 4;
+            int buffered = Math.min(filled - headLength, length);
+            if (length > 0) {
+                byte[] pooled = RequestBodyReader.acquire();
+                if (!budget.tryReserve(pooled.length)) {
+                    RequestBodyReader.release(pooled);
+                    throw busy();
+                }
+                body = pooled;
+                System.arraycopy(bytes, headLength, body, 0, buffered);
+            }
+            int consumed = headLength + buffered;
+            System.arraycopy(bytes, consumed, bytes, 0, filled - consumed);
+            buffer.position(filled - consumed);
+            head = parsed;
+            bodyLength = length;
+            bodyFilled = buffered;
+            scanFrom = 0;
+            continueSent = false;
+        }
+        if (bodyFilled < bodyLength) {
+            return null;
+        }
+
+        Request request = head.withBody(body == null
+            ? RequestBodyReader.Body.empty()
+            : new RequestBodyReader.Body(body, bodyLength, budget));
+        head = null;
+        body = null;
+        requestStarted = buffer.position() > 0 ? System.nanoTime() : -1;
+        return request;
+    }
+
+    /**
+     * A client that sent {@code Expect: 100-continue} waits for this before sending the body.
+     */
+    void continueIfExpected() throws IOException {
+        if (head != null && !continueSent && head.expectsContinue()) {
+            continueSent = true;
+            channel.write(ByteBuffer.wrap(CONTINUE));
+        }
+    }
+
+    /**
+     * Output of the connection while a handler serves it.
+     */
+    OutputStream output() {
+        if (out == null) {
+            out = new BufferedOutputStream(new ChannelOutput(), INITIAL_BUFFER_SIZE);
+        }
+        return out;
+    }
+
+    void close() {
+        if (writeSelector != null) {
+            try {
+                writeSelector.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        head = null;
+        if (body != null) {
+            budget.release(body.length);
+            RequestBodyReader.release(body);
+            body = null;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+
+    /**
+     * Writes without ever blocking in the channel. An interrupt only wakes the write selector;
+     * it is held back until the write is done and then restored for the handler to see.
+     */
+    private final class ChannelOutput extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer src = ByteBuffer.wrap(b, off, len);
+            boolean interrupted = false;
+            try {
+                while (src.hasRemaining()) {
+                    if (channel.write(src) == 0) {
+                        interrupted |= Thread.interrupted();
+                        awaitWritable();
+                    }
+                }
+            } finally {
+                if (interrupted || Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void awaitWritable() throws IOException {
+            if (writeSelector == null) {
+                writeSelector = Selector.open();
+                channel.register(writeSelector, SelectionKey.OP_WRITE);
+            }
+            writeSelector.select();
+            writeSelector.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * Doubles the body buffer, up to the announced length.
+     */
+    private void grow() throws BadRequest {
+        int size = (int) Math.min(bodyLength, body.length * 2L);
+        reserve(size - body.length);
+        byte[] grown = Arrays.copyOf(body, size);
+        RequestBodyReader.release(body);
+        body = grown;
+    }
+
+    private void reserve(int bytes) throws BadRequest {
+        if (!budget.tryReserve(bytes)) {
+            throw busy();
+        }
+    }
+
+    private static BadRequest busy() {
+        return new BadRequest(503, "Server is busy, request buffers are full");
+    }
+
+    private static int headEnd(byte[] bytes, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Request parseHead(byte[] bytes, int end) throws BadRequest {
+        String[] lines = new String(bytes, 0, end, StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new BadRequest(400, "Malformed request line");
+        }
+
+        Headers headers = new Headers();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new BadRequest(400, "Malformed header line");
+            }
+            headers.add(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+        }
+        if (headers.containsKey("Transfer-Encoding")) {
+            throw new BadRequest(411, "Chunked request bodies are not supported, send Content-Length");
+        }
+
+        URI uri;
+        try {
+            uri = URI.create(requestLine[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(400, "Malformed request target");
+        }
+
+        String protocol = requestLine[2];
+        String connection = headers.getFirst("Connection");
+        boolean keepAlive = "HTTP/1.1".equals(protocol)
+            ? !"close".equalsIgnoreCase(connection)
+            : "keep-alive".equalsIgnoreCase(connection);
+        return new Request(requestLine[0], uri, protocol, headers, null, keepAlive);
+    }
+
+    private int contentLength(Headers headers) throws BadRequest {
+        String value = headers.getFirst("Content-Length");
+        if (value == null) {
+            return 0;
+        }
+        long length;
+        try {
+            length = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequest(400, "Malformed Content-Length");
+        }
+        if (length < 0) {
+            throw new BadRequest(400, "Malformed Content-Length");
+        }
+        if (length > maxBodyBytes) {
+            throw new BadRequest(413, "Request body larger than " + maxBodyBytes + " bytes");
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,392 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.server.boundary.HttpEngine;
+import com.wiley.uaxd.mcp.server.entity.ServerConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Engine on NIO channels. Acceptor threads take new connections and spread them over
+ * selector threads, by default one per core. Each acceptor has its own listening socket,
+ * bound with SO_REUSEPORT so the kernel balances connections over them; where that option
+ * is missing, a single acceptor is used, as accepts on one socket are serialized anyway. A selector reads idle connections until a
+ * request is complete, then hands the connection to a virtual thread, which serves that
+ * request and any pipelined ones already read, and gives the connection back for keep-alive.
+ * Connections idle for longer than the keep-alive timeout are closed by their selector,
+ * and so are connections whose request has not arrived in full within the read timeout.
+ * Request bodies of all connections share one {@link BufferBudget} of {@code --max-buffered} bytes.
+ */
+public class NioHttpEngine implements HttpEngine {
+
+    private static final long REAP_INTERVAL_MILLIS = 1000;
+    /** Wait after a failed accept, e.g. out of file descriptors, doubled while failures go on */
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final ServerConfig config;
+    private final BufferBudget budget;
+    private final List<SelectorLoop> loops = new ArrayList<>();
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private ExecutorService handlers;
+    private final List<ServerSocketChannel> serverChannels = new ArrayList<>();
+    private Map<String, HttpHandler> contexts;
+    private volatile boolean running;
+
+    public NioHttpEngine(ServerConfig config) {
+        this.config = config;
+        this.budget = new BufferBudget(config.maxBufferedBytes());
+    }
+
+    @Override
+    public void start(InetSocketAddress address, Map<String, HttpHandler> contexts) throws IOException {
+        this.contexts = Map.copyOf(contexts);
+        this.handlers = Executors.newVirtualThreadPerTaskExecutor();
+        ServerSocketChannel first = ServerSocketChannel.open();
+        boolean reusePort = config.acceptorThreads() > 1
+            && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        serverChannels.add(bind(first, address, reusePort));
+        if (reusePort) {
+            // The first socket fixes the port, in case an ephemeral one was asked for
+            InetSocketAddress bound = (InetSocketAddress) first.getLocalAddress();
+            for (int i = 1; i < config.acceptorThreads(); i++) {
+                serverChannels.add(bind(ServerSocketChannel.open(), bound, true));
+            }
+        } else if (config.acceptorThreads() > 1) {
+            Log.info("SO_REUSEPORT is not supported, using a single acceptor");
+        }
+        running = true;
+
+        for (int i = 0; i < config.selectorThreads(); i++) {
+            SelectorLoop loop = new SelectorLoop(Selector.open());
+            loops.add(loop);
+            Thread.ofPlatform().name("http-selector-" + i).daemon().start(loop);
+        }
+        for (int i = 0; i < serverChannels.size(); i++) {
+            ServerSocketChannel serverChannel = serverChannels.get(i);
+            Thread.ofPlatform().name("http-acceptor-" + i).daemon().start(() -> accept(serverChannel));
+        }
+        Log.info("HTTP engine: nio (" + serverChannels.size() + " acceptors, " + config.selectorThreads()
+            + " selectors, backlog " + config.backlog() + ", keep-alive " + config.keepAliveTimeout().toSeconds()
+            + "s, buffers " + budget.maxBytes() + " bytes)");
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (ServerSocketChannel serverChannel : serverChannels) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                Log.error("Failed to close server socket", e);
+            }
+        }
+        loops.forEach(loop -> loop.selector.wakeup());
+        handlers.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "nio";
+    }
+
+    private ServerSocketChannel bind(ServerSocketChannel channel, InetSocketAddress address, boolean reusePort)
+            throws IOException {
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        if (reusePort) {
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        channel.bind(address, config.backlog());
+        return channel;
+    }
+
+    /**
+     * Accepts connections until the engine stops. A failure such as running out of file
+     * descriptors tends to repeat, so it is logged once and retried with a growing pause.
+     */
+    private void accept(ServerSocketChannel serverChannel) {
+        long backoff = 0;
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+                if (backoff == 0) {
+                    Log.error("Accept failed, retrying with backoff", e);
+                }
+                backoff = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, Math.max(MIN_ACCEPT_BACKOFF_MILLIS, backoff * 2));
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            if (backoff > 0) {
+                Log.info("Accepting connections again");
+                backoff = 0;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                register(new NioConnection(channel, config.maxBodyBytes(), budget));
+            } catch (IOException | RuntimeException e) {
+                Log.error("Failed to set up connection", e);
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // nothing more to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves requests on a virtual thread while they are complete in the buffer;
+     * then the connection goes back to a selector, or is closed.
+     */
+    private void serve(NioConnection connection, NioConnection.Request request) {
+        try {
+            while (request != null) {
+                NioHttpExchange exchange = new NioHttpExchange(connection, request);
+                NioConnection.Request served = request;
+                request = null;
+                handle(exchange, served);
+                if (!exchange.reusable()) {
+                    connection.close();
+                    return;
+                }
+                request = connection.poll();
+            }
+            connection.continueIfExpected();
+            connection.touch();
+            register(connection);
+        } catch (NioConnection.BadRequest e) {
+            reject(connection, e);
+        } catch (IOException e) {
+            Log.debug(() -> "Connection from " + connection.remoteAddress + " closed: " + e.getMessage());
+            connection.close();
+        } finally {
+            if (request != null) {
+                request.body().close();
+            }
+        }
+    }
+
+    private void handle(NioHttpExchange exchange, NioConnection.Request request) {
+        HttpHandler handler = route(request.uri().getPath());
+        try {
+            if (handler == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                handler.handle(exchange);
+            }
+        } catch (Exception e) {
+            Log.error("Handler failed for " + request.method() + " " + request.uri(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Longest context path that prefixes the request path, as with the JDK server.
+     */
+    private HttpHandler route(String path) {
+        String match = null;
+        for (String context : contexts.keySet()) {
+            if (path != null && path.startsWith(context) && (match == null || context.length() > match.length())) {
+                match = context;
+            }
+        }
+        return match != null ? contexts.get(match) : null;
+    }
+
+    private void register(NioConnection connection) {
+        loops.get(Math.floorMod(nextLoop.getAndIncrement(), loops.size())).register(connection);
+    }
+
+    /**
+     * Answers a request that cannot be served and closes the connection.
+     */
+    private static void reject(NioConnection connection, NioConnection.BadRequest e) {
+        Log.info(() -> "Rejected request from " + connection.remoteAddress + ": " + e.status + " " + e.getMessage());
+        byte[] body = ("{\"error\":\"" + e.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + e.status + " Error\r\nContent-Type: application/json\r\nContent-Length: "
+            + body.length + "\r\nConnection: close\r\n\r\n";
+        try {
+            ByteBuffer response = ByteBuffer.allocate(head.length() + body.length)
+                .put(head.getBytes(StandardCharsets.ISO_8859_1))
+                .put(body)
+                .flip();
+            connection.channel.write(response);
+        } catch (IOException ignored) {
+            // the client is gone anyway
+        }
+        connection.close();
+    }
+
+    /**
+     * Reads the connections assigned to one selector thread and reaps idle ones.
+     */
+    private final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<NioConnection> pending = new ConcurrentLinkedQueue<>();
+
+        SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(NioConnection connection) {
+            pending.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long keepAliveNanos = config.keepAliveTimeout().toNanos();
+            long readTimeoutNanos = config.bodyReadTimeout().toNanos();
+            long lastReap = System.nanoTime();
+            List<NioConnection> ready = new ArrayList<>();
+            List<NioConnection.Request> requests = new ArrayList<>();
+            while (running) {
+                try {
+                    selector.select(REAP_INTERVAL_MILLIS);
+                    registerPending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        NioConnection.Request request = read(key, connection);
+                        if (request != null) {
+                            key.cancel();
+                            ready.add(connection);
+                            requests.add(request);
+                        }
+                    }
+
+                    if (!ready.isEmpty()) {
+                        // Deregisters the cancelled keys, so the connections can come back to this selector
+                        selector.selectNow();
+                        for (int i = 0; i < ready.size(); i++) {
+                            NioConnection connection = ready.get(i);
+                            NioConnection.Request request = requests.get(i);
+                            handlers.execute(() -> serve(connection, request));
+                        }
+                        ready.clear();
+                        requests.clear();
+                    }
+
+                    long now = System.nanoTime();
+                    if (TimeUnit.NANOSECONDS.toMillis(now - lastReap) >= REAP_INTERVAL_MILLIS) {
+                        lastReap = now;
+                        reap(now, keepAliveNanos, readTimeoutNanos);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Log.error("Selector loop failed", e);
+                }
+            }
+            closeAll();
+        }
+
+        private void registerPending() {
+            NioConnection connection;
+            while ((connection = pending.poll()) != null) {
+                try {
+                    connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    connection.close();
+                }
+            }
+        }
+
+        /**
+         * Reads what is available; returns a complete request, or null if more bytes are needed
+         * or the connection was closed.
+         */
+        private NioConnection.Request read(SelectionKey key, NioConnection connection) {
+            try {
+                if (!key.isValid() || !connection.read()) {
+                    key.cancel();
+                    connection.close();
+                    return null;
+                }
+                NioConnection.Request request = connection.poll();
+                if (request == null) {
+                    connection.continueIfExpected();
+                }
+                return request;
+            } catch (NioConnection.BadRequest e) {
+                key.cancel();
+                reject(connection, e);
+                return null;
+            } catch (IOException e) {
+                key.cancel();
+                connection.close();
+                return null;
+            } catch (RuntimeException | Error e) {
+                // One broken connection must not take the selector thread and its other connections down
+                Log.error("Failed to read from " + connection.remoteAddress, e);
+                key.cancel();
+                connection.close();
+                return null;
+            }
+        }
+
+        private void reap(long now, long keepAliveNanos, long readTimeoutNanos) {
+            for (SelectionKey key : selector.keys()) {
+                if (!(key.attachment() instanceof NioConnection connection)) {
+                    continue;
+                }
+                if (connection.pendingNanos(now) > readTimeoutNanos) {
+                    key.cancel();
+                    reject(connection, new NioConnection.BadRequest(408,
+                        "Request not received within " + config.bodyReadTimeout().toSeconds() + "s"));
+                } else if (connection.idleNanos(now) > keepAliveNanos) {
+                    Log.debug(() -> "Closing idle connection from " + connection.remoteAddress);
+                    key.cancel();
+                    connection.close();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof NioConnection connection) {
+                    connection.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                Log.error("Failed to close selector", e);
+            }
+        }
+    }
+}
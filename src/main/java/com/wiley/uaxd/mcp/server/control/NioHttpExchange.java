@@ -0,0 +1,362 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link HttpExchange} of the {@link NioHttpEngine}, so handlers are the same on every engine.
+ * The request body is already in a pooled buffer; the response is written to the connection, with a
+ * Content-Length when the handler passes one and chunked when it passes 0. HTTP/1.0 clients cannot
+ * read chunked bodies, so they get the body without a length, ended by closing the connection.
+ */
+final class NioHttpExchange extends HttpExchange {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final NioConnection connection;
+    private final NioConnection.Request request;
+    private final Headers responseHeaders = new Headers();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private RequestBodyReader.Body body;
+    private InputStream requestBody;
+    private OutputStream responseBody;
+    private int responseCode = -1;
+    private boolean keepAlive;
+    private boolean complete;
+
+    NioHttpExchange(NioConnection connection, NioConnection.Request request) {
+        this.connection = connection;
+        this.request = request;
+        this.body = request.body();
+        this.keepAlive = request.keepAlive();
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return request.headers();
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return request.uri();
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return request.method();
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        if (requestBody == null) {
+            ByteBuffer bytes = body != null ? body.buffer() : ByteBuffer.allocate(0);
+            requestBody = new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+        return requestBody;
+    }
+
+    /**
+     * Hands the body over to the caller, who closes it once done with it.
+     */
+    RequestBodyReader.Body takeBody() {
+        RequestBodyReader.Body taken = body != null ? body : RequestBodyReader.Body.empty();
+        body = null;
+        return taken;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        if (responseBody == null) {
+            throw new IllegalStateException("sendResponseHeaders must be called first");
+        }
+        return responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int code, long responseLength) throws IOException {
+        if (responseCode != -1) {
+            throw new IOException("Response headers already sent");
+        }
+        responseCode = code;
+        if ("close".equalsIgnoreCase(responseHeaders.getFirst("Connection"))) {
+            keepAlive = false;
+        }
+
+        boolean noBody = responseLength == -1 || code == 204 || code == 304 || "HEAD".equals(request.method());
+        boolean closeDelimited = !noBody && responseLength == 0 && "HTTP/1.0".equals(request.protocol());
+        if (closeDelimited) {
+            keepAlive = false;
+        }
+        if (noBody) {
+            if (code != 204 && code != 304) {
+                responseHeaders.set("Content-Length", "0");
+            }
+        } else if (responseLength > 0) {
+            responseHeaders.set("Content-Length", Long.toString(responseLength));
+        } else if (!closeDelimited) {
+            responseHeaders.set("Transfer-Encoding", "chunked");
+        }
+        if (!keepAlive) {
+            responseHeaders.set("Connection", "close");
+        } else if ("HTTP/1.0".equals(request.protocol())) {
+            // HTTP/1.0 clients expect the connection to close unless told otherwise
+            responseHeaders.set("Connection", "keep-alive");
+        }
+
+        OutputStream out = connection.output();
+        out.write(head(code));
+        if (noBody) {
+            responseBody = new FixedLengthBody(out, 0);
+        } else if (responseLength > 0) {
+            responseBody = new FixedLengthBody(out, responseLength);
+        } else if (closeDelimited) {
+            responseBody = new CloseDelimitedBody(out);
+        } else {
+            responseBody = new ChunkedBody(out);
+        }
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.remoteAddress;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return connection.localAddress;
+    }
+
+    @Override
+    public String getProtocol() {
+        return request.protocol();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream in, OutputStream out) {
+        if (in != null) {
+            requestBody = in;
+        }
+        if (out != null) {
+            responseBody = out;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Finishes the response. Without a response, or with a body shorter than announced,
+     * the connection cannot be reused.
+     */
+    @Override
+    public void close() {
+        if (body != null) {
+            body.close();
+            body = null;
+        }
+        if (responseBody == null) {
+            keepAlive = false;
+            return;
+        }
+        try {
+            responseBody.close();
+        } catch (IOException e) {
+            keepAlive = false;
+        }
+    }
+
+    /**
+     * True if the next request may be read from the same connection.
+     */
+    boolean reusable() {
+        return keepAlive && complete;
+    }
+
+    private byte[] head(int code) {
+        StringBuilder head = new StringBuilder(128)
+            .append(request.protocol().equals("HTTP/1.0") ? "HTTP/1.0 " : "HTTP/1.1 ")
+            .append(code).append(' ').append(reason(code)).append("\r\n");
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            for (String value : header.getValue()) {
+                head.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        return head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String reason(int code) {
+        return switch (code) {
+            case 200 -> "OK";
+            case 204 -> "No Content";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 406 -> "Not Acceptable";
+            case 408 -> "Request Timeout";
+            case 411 -> "Length Required";
+            case 413 -> "Content Too Large";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 503 -> "Service Unavailable";
+            default -> "Status";
+        };
+    }
+
+    /**
+     * Body with a Content-Length; complete once exactly that many bytes were written.
+     */
+    private final class FixedLengthBody extends OutputStream {
+        private final OutputStream out;
+        private long remaining;
+        private boolean closed;
+
+        FixedLengthBody(OutputStream out, long length) {
+            this.out = out;
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > remaining) {
+                throw new IOException("Response body exceeds Content-Length");
+            }
+            out.write(b, off, len);
+            remaining -= len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.flush();
+            complete = remaining == 0;
+        }
+    }
+
+    /**
+     * Body of unknown length for an HTTP/1.0 client; it ends when the connection is closed.
+     */
+    private static final class CloseDelimitedBody extends FilterOutputStream {
+        private boolean closed;
+
+        CloseDelimitedBody(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.flush();
+        }
+    }
+
+    /**
+     * Chunked body; every write becomes one chunk, so a flushed event reaches the client at once.
+     */
+    private final class ChunkedBody extends OutputStream {
+        private final OutputStream out;
+        private boolean closed;
+
+        ChunkedBody(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            out.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+            out.write(CRLF);
+            out.write(b, off, len);
+            out.write(CRLF);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.write(LAST_CHUNK);
+            out.flush();
+            complete = true;
+        }
+    }
+}
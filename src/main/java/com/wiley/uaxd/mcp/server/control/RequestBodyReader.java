@@ -0,0 +1,177 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads request bodies into pooled buffers, with a size limit and a read timeout.
+ * A Content-Length over the limit is refused before anything is read; a body without one
+ * is refused as soon as it grows past the limit. A sender too slow to finish within the
+ * timeout has its reading thread interrupted, which closes the connection.
+ */
+public class RequestBodyReader {
+
+    static final int INITIAL_CAPACITY = 16 * 1024;
+    /** Typical bodies fit; a buffer grown past this for a rare large body is dropped, not kept */
+    static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    static final int POOL_SIZE = 64;
+
+    private static final ArrayBlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final ScheduledThreadPoolExecutor WATCHDOG = watchdog();
+
+    private final int maxBytes;
+    private final Duration timeout;
+
+    /**
+     * The body is larger than the limit; answered with 413.
+     */
+    public static final class TooLarge extends IOException {
+        TooLarge(int maxBytes) {
+            super("Request body larger than " + maxBytes + " bytes");
+        }
+    }
+
+    /**
+     * The body did not arrive within the timeout; the connection is already closed.
+     */
+    public static final class TimedOut extends IOException {
+        TimedOut(Duration timeout) {
+            super("Request body not received within " + timeout.toSeconds() + "s");
+        }
+    }
+
+    /**
+     * A body in a pooled buffer; close to give the buffer back once the request is handled.
+     * A body read by the nio engine also gives its bytes back to the engine's budget.
+     */
+    public static final class Body implements AutoCloseable {
+        private static final byte[] NONE = new byte[0];
+
+        private byte[] array;
+        private final ByteBuffer buffer;
+        private final BufferBudget budget;
+
+        Body(byte[] array, int length, BufferBudget budget) {
+            this.array = array;
+            this.buffer = ByteBuffer.wrap(array, 0, length);
+            this.budget = budget;
+        }
+
+        static Body empty() {
+            return new Body(NONE, 0, null);
+        }
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            if (array != null) {
+                if (budget != null) {
+                    budget.release(array.length);
+                }
+                release(array);
+                array = null;
+            }
+        }
+    }
+
+    public RequestBodyReader(int maxBytes, Duration timeout) {
+        this.maxBytes = maxBytes;
+        this.timeout = timeout;
+    }
+
+    public Body read(HttpExchange exchange) throws IOException {
+        if (exchange instanceof NioHttpExchange nio) {
+            // Already read by the selector, into a pooled buffer and within the limit and timeout
+            return nio.takeBody();
+        }
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && parseLength(contentLength) > maxBytes) {
+            throw new TooLarge(maxBytes);
+        }
+
+        Thread reader = Thread.currentThread();
+        AtomicBoolean reading = new AtomicBoolean(true);
+        ScheduledFuture<?> watchdog = WATCHDOG.schedule(() -> {
+            if (reading.compareAndSet(true, false)) {
+                reader.interrupt();
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        byte[] buf = acquire();
+        int count = 0;
+        IOException failure = null;
+        try (InputStream in = exchange.getRequestBody()) {
+            while (true) {
+                if (count == buf.length) {
+                    buf = Arrays.copyOf(buf, (int) Math.min((long) maxBytes + 1, buf.length * 2L));
+                }
+                int read = in.read(buf, count, buf.length - count);
+                if (read == -1) {
+                    break;
+                }
+                count += read;
+                if (count > maxBytes) {
+                    throw new TooLarge(maxBytes);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            watchdog.cancel(false);
+        }
+
+        if (!reading.compareAndSet(true, false)) {
+            // The watchdog fired; its interrupt is not left to the handler
+            Thread.interrupted();
+            failure = new TimedOut(timeout);
+        }
+        if (failure != null) {
+            release(buf);
+            throw failure;
+        }
+        return new Body(buf, count, null);
+    }
+
+    /**
+     * Nearly every read finishes long before its timeout; cancelled tasks leave the queue
+     * at once instead of holding their reader thread until they would have fired.
+     */
+    private static ScheduledThreadPoolExecutor watchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+            Thread.ofPlatform().name("body-read-watchdog").daemon().factory());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static byte[] acquire() {
+        byte[] buf = POOL.poll();
+        return buf != null ? buf : new byte[INITIAL_CAPACITY];
+    }
+
+    static void release(byte[] buf) {
+        if (buf.length >= INITIAL_CAPACITY && buf.length <= MAX_POOLED_CAPACITY) {
+            POOL.offer(buf);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * gzip and deflate response bodies, negotiated through Accept-Encoding.
+ * Deflaters hold native memory and are costly to create, so they are pooled
+ * and reset after each response; gzip framing is written here because
+ * {@code GZIPOutputStream} always creates its own Deflater.
+ */
+public final class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    static final int POOL_SIZE = 16;
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final ArrayBlockingQueue<Deflater> GZIP_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final ArrayBlockingQueue<Deflater> DEFLATE_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private ResponseCompression() {
+    }
+
+    /**
+     * The encoding to use for a body, or null to send it uncompressed.
+     * gzip is preferred when the client accepts both; {@code *} only covers codings
+     * that the header does not list by name, so {@code gzip;q=0, *} yields deflate.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Boolean gzip = null;
+        Boolean deflate = null;
+        Boolean any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = !isZeroQuality(parts);
+            if (coding.equalsIgnoreCase(GZIP)) {
+                gzip = accepted;
+            } else if (coding.equalsIgnoreCase(DEFLATE)) {
+                deflate = accepted;
+            } else if (coding.equals("*")) {
+                any = accepted;
+            }
+        }
+        if (isAccepted(gzip, any)) {
+            return GZIP;
+        }
+        return isAccepted(deflate, any) ? DEFLATE : null;
+    }
+
+    /**
+     * Compresses into the given stream; closing the returned stream finishes the encoding,
+     * returns the Deflater to the pool and closes the target.
+     */
+    public static OutputStream compress(OutputStream target, String encoding) throws IOException {
+        return GZIP.equals(encoding)
+            ? new GzipBody(target, acquire(GZIP_POOL, true))
+            : new PooledDeflaterBody(target, acquire(DEFLATE_POOL, false), DEFLATE_POOL);
+    }
+
+    private static boolean isAccepted(Boolean listed, Boolean any) {
+        return listed != null ? listed : Boolean.TRUE.equals(any);
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (!param.startsWith("q=")) {
+                continue;
+            }
+            try {
+                return Double.parseDouble(param.substring(2)) == 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Deflater acquire(ArrayBlockingQueue<Deflater> pool, boolean nowrap) {
+        Deflater deflater = pool.poll();
+        return deflater != null ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+    }
+
+    private static void release(ArrayBlockingQueue<Deflater> pool, Deflater deflater) {
+        deflater.reset();
+        if (!pool.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * zlib-wrapped deflate ("deflate" in HTTP) with a pooled Deflater.
+     */
+    private static class PooledDeflaterBody extends DeflaterOutputStream {
+        private final ArrayBlockingQueue<Deflater> pool;
+        private boolean closed;
+
+        PooledDeflaterBody(OutputStream out, Deflater deflater, ArrayBlockingQueue<Deflater> pool) {
+            super(out, deflater, BUFFER_SIZE);
+            this.pool = pool;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+                writeTrailer(out);
+                out.close();
+            } finally {
+                release(pool, def);
+            }
+        }
+
+        void writeTrailer(OutputStream out) throws IOException {
+        }
+    }
+
+    /**
+     * gzip: the fixed header, raw deflate data, then CRC-32 and length of the input.
+     */
+    private static final class GzipBody extends PooledDeflaterBody {
+        private final CRC32 crc = new CRC32();
+
+        GzipBody(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater, GZIP_POOL);
+            out.write(GZIP_HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        void writeTrailer(OutputStream out) throws IOException {
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, (int) def.getBytesRead());
+        }
+
+        private static void writeIntLE(OutputStream out, int value) throws IOException {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+    }
+}
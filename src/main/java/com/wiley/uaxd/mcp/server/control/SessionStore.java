@@ -0,0 +1,154 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.server.entity.Session;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded store of Streamable HTTP sessions keyed by Mcp-Session-Id.
+ * Sessions idle for longer than the timeout are dropped when looked up, when
+ * room is needed, and by a periodic sweep once {@link #start()} is called, so a client
+ * that goes away without ending its session does not hold memory until the store fills up.
+ * At capacity the least recently used session is evicted.
+ */
+public class SessionStore {
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final AtomicLong evicted = new AtomicLong();
+    private ScheduledExecutorService sweeper;
+
+    public SessionStore(int maxSessions, Duration idleTimeout) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Starts a session for an initialize request. Creation is serialized, so concurrent
+     * initialize requests cannot push the store past its capacity; lookups and removals
+     * only ever shrink it and need no lock.
+     */
+    public synchronized Session create(Map<String, Object> initializeParams) {
+        long now = System.nanoTime();
+        if (sessions.size() >= maxSessions) {
+            makeRoom(now);
+        }
+        Session session = new Session(UUID.randomUUID().toString(), now);
+        sessions.put(session.id(), session);
+        String clientName = clientName(initializeParams);
+        Log.info(() -> "Session " + session.id() + " created for " + clientName);
+        return session;
+    }
+
+    /**
+     * Returns the live session and marks it used, or null if it is unknown or expired.
+     */
+    public Session get(String id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (isIdle(session, now)) {
+            remove(session, "expired");
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Ends a session; false if it did not exist.
+     */
+    public boolean terminate(String id) {
+        Session session = sessions.get(id);
+        return session != null && remove(session, "terminated by client");
+    }
+
+    /**
+     * Starts sweeping expired sessions, at the idle timeout but at least once a minute.
+     */
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        long intervalNanos = Math.min(idleTimeoutNanos, TimeUnit.MINUTES.toNanos(1));
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Drops every session idle for longer than the timeout.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            if (isIdle(session, now)) {
+                remove(session, "expired");
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long evictedCount() {
+        return evicted.get();
+    }
+
+    private void makeRoom(long now) {
+        Session oldest = null;
+        for (Session session : sessions.values()) {
+            if (isIdle(session, now)) {
+                remove(session, "expired");
+            } else if (oldest == null || session.lastAccess() < oldest.lastAccess()) {
+                oldest = session;
+            }
+        }
+        if (sessions.size() >= maxSessions && oldest != null) {
+            remove(oldest, "evicted, store full");
+        }
+    }
+
+    private boolean isIdle(Session session, long now) {
+        return now - session.lastAccess() > idleTimeoutNanos;
+    }
+
+    private boolean remove(Session session, String reason) {
+        if (!sessions.remove(session.id(), session)) {
+            return false;
+        }
+        evicted.incrementAndGet();
+        session.close();
+        Log.info(() -> "Session " + session.id() + " " + reason);
+        return true;
+    }
+
+    private static String clientName(Map<String, Object> params) {
+        if (params != null && params.get("clientInfo") instanceof Map<?, ?> info && info.get("name") instanceof String name) {
+            return name;
+        }
+        return "unknown client";
+    }
+}
@@ -0,0 +1,129 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.server.entity.Session;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events response: every JSON-RPC message becomes one {@code message} event.
+ * Messages may come from several threads; each event is written and flushed as a whole.
+ */
+public class SseStream implements Session.Stream {
+
+    private static final byte[] EVENT_PREFIX = "event: message\ndata: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT_SUFFIX = {'\n', '\n'};
+    private static final byte[] KEEP_ALIVE = ": keep-alive\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpExchange exchange;
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private OutputStream out;
+    private boolean broken;
+
+    private SseStream(HttpExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Sends 200 with a chunked {@code text/event-stream} body.
+     */
+    public static SseStream open(HttpExchange exchange) throws IOException {
+        SseStream stream = new SseStream(exchange);
+        stream.sendHeaders();
+        return stream;
+    }
+
+    /**
+     * A stream that sends its headers with the first message, so until then the
+     * exchange can still be answered with another status.
+     */
+    public static SseStream deferred(HttpExchange exchange) {
+        return new SseStream(exchange);
+    }
+
+    public synchronized boolean isOpen() {
+        return out != null;
+    }
+
+    @Override
+    public void send(JsonWritable message) {
+        try (JsonWriter writer = JsonWriter.pooled()) {
+            message.writeTo(writer);
+            Log.response(null, writer.asByteBuffer());
+            synchronized (this) {
+                if (broken) {
+                    return;
+                }
+                try {
+                    if (out == null) {
+                        sendHeaders();
+                    }
+                    out.write(EVENT_PREFIX);
+                    writer.writeTo(out);
+                    out.write(EVENT_SUFFIX);
+                    out.flush();
+                } catch (IOException e) {
+                    disconnected(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an SSE comment, which also detects a client that went away.
+     */
+    public synchronized void keepAlive() {
+        if (broken || out == null) {
+            return;
+        }
+        try {
+            out.write(KEEP_ALIVE);
+            out.flush();
+        } catch (IOException e) {
+            disconnected(e);
+        }
+    }
+
+    /**
+     * Waits until the stream is closed or broken; false if the timeout elapsed first.
+     */
+    public boolean awaitClosed(Duration timeout) throws InterruptedException {
+        return closed.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        broken = true;
+        closed.countDown();
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            Log.error("Failed to close SSE stream", e);
+        }
+    }
+
+    private void sendHeaders() throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream");
+        headers.set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        out = exchange.getResponseBody();
+    }
+
+    private void disconnected(IOException e) {
+        broken = true;
+        closed.countDown();
+        Log.error("SSE client disconnected", e);
+    }
+}
@@ -0,0 +1,77 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count and a refill time, which would have to
+ * change together, the whole state is one atomic timestamp: the time at which the bucket
+ * would be full again (the generic cell rate algorithm). Taking a token moves it one refill
+ * interval later; a request is refused when that would put it more than a full bucket ahead.
+ */
+public class TokenBucket {
+
+    private final int burst;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    /** When the bucket is full again; at or before now means full */
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.burst = Math.max(1, burst);
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.capacityNanos = intervalNanos * this.burst;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes one token if there is one.
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - now, 0) + intervalNanos;
+            if (next > capacityNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, now + next)) {
+                return true;
+            }
+        }
+    }
+
+    public int burst() {
+        return burst;
+    }
+
+    /**
+     * Tokens left now.
+     */
+    public int remaining() {
+        return (int) ((capacityNanos - deficitNanos()) / intervalNanos);
+    }
+
+    /**
+     * Seconds until the bucket is full again, rounded up.
+     */
+    public long secondsUntilFull() {
+        return ceilSeconds(deficitNanos());
+    }
+
+    /**
+     * Seconds until the next token is available, rounded up; 0 if one is available now.
+     */
+    public long secondsUntilNext() {
+        return ceilSeconds(Math.max(0, deficitNanos() + intervalNanos - capacityNanos));
+    }
+
+    private long deficitNanos() {
+        return Math.max(0, fullAt.get() - System.nanoTime());
+    }
+
+    private static long ceilSeconds(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (nanos + second - 1) / second;
+    }
+}
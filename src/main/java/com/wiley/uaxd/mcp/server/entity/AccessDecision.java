@@ -0,0 +1,15 @@
+package com.wiley.uaxd.mcp.server.entity;
+
+/**
+ * Outcome of checking a request's API key and rate limit.
+ */
+public enum AccessDecision {
+    /** Valid key within its rate, or authentication disabled */
+    ALLOWED,
+
+    /** Missing or unknown key */
+    UNAUTHORIZED,
+
+    /** Valid key over its rate limit */
+    RATE_LIMITED
+}
@@ -0,0 +1,18 @@
+package com.wiley.uaxd.mcp.server.entity;
+
+/**
+ * An accepted API key and its client's rate limit: {@code ratePerSecond} requests are
+ * refilled per second, up to {@code burst}. A rate of 0 means unlimited.
+ * The name identifies the client in logs and status; the key itself is never shown.
+ */
+public record ApiKey(String name, String key, double ratePerSecond, int burst) {
+
+    public boolean isLimited() {
+        return ratePerSecond > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiKey[" + name + (isLimited() ? ", " + ratePerSecond + "/s, burst " + burst : ", unlimited") + "]";
+    }
+}
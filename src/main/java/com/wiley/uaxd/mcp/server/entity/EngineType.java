@@ -0,0 +1,12 @@
+package com.wiley.uaxd.mcp.server.entity;
+
+/**
+ * HTTP engine underneath the MCP server.
+ */
+public enum EngineType {
+    /** The JDK's built-in com.sun.net.httpserver */
+    JDK,
+
+    /** Selector-based engine with several acceptor and selector threads */
+    NIO
+}
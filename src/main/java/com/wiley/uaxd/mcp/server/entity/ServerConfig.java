@@ -1,19 +1,64 @@
 package com.wiley.uaxd.mcp.server.entity;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
- * HTTP server configuration.
+ * Server configuration. Port, key and sessions apply to HTTP mode; in-flight and message limits
+ * to STDIO mode; method timeouts and concurrency limits to both transports.
  */
 public record ServerConfig(
     int port,
-    String apiKey,
-    int backlog
+    List<ApiKey> apiKeys,
+    int backlog,
+    int maxSessions,
+    Duration sessionIdleTimeout,
+    Map<String, Duration> methodTimeouts,
+    EngineType engine,
+    int acceptorThreads,
+    int selectorThreads,
+    Duration keepAliveTimeout,
+    Map<String, Integer> concurrencyLimits,
+    int admissionQueue,
+    Duration admissionWait,
+    int maxBodyBytes,
+    Duration bodyReadTimeout,
+    int maxBufferedBytes,
+    int compressMinBytes,
+    int maxInFlight,
+    int maxMessageBytes
 ) {
     public static final int DEFAULT_PORT = 8478;
     public static final int DEFAULT_BACKLOG = 50;
+    /** Requests per second refilled per API key, and how many may be made at once */
+    public static final double DEFAULT_RATE_LIMIT = 20;
+    public static final int DEFAULT_RATE_BURST = 40;
+    public static final int DEFAULT_ACCEPTOR_THREADS = 1;
+    public static final Duration DEFAULT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_BODY_BYTES = 4 * 1024 * 1024;
+    /** Bytes that request bodies being read by the nio engine may hold together */
+    public static final int DEFAULT_MAX_BUFFERED_BYTES = 64 * 1024 * 1024;
+    /** Time a client has to send a request body, or with the nio engine a whole request */
+    public static final Duration DEFAULT_BODY_READ_TIMEOUT = Duration.ofSeconds(30);
+    /** Smaller response bodies are sent as they are; compressing them saves less than it costs */
+    public static final int DEFAULT_COMPRESS_MIN_BYTES = 1024;
+    /** STDIO requests processed at once, and the longest accepted input line */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+    public static final int DEFAULT_MAX_MESSAGE_BYTES = 4 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SESSIONS = 1000;
+    public static final Duration DEFAULT_SESSION_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    /** Overall budget of a request, including token refresh, upstream call and retry */
+    public static final Map<String, Duration> DEFAULT_METHOD_TIMEOUTS = Map.of("tools/call", Duration.ofSeconds(60));
+    /** Requests running at once, per method or tool name */
+    public static final Map<String, Integer> DEFAULT_CONCURRENCY_LIMITS = Map.of("tools/call", 32);
+    public static final int DEFAULT_ADMISSION_QUEUE = 16;
+    public static final Duration DEFAULT_ADMISSION_WAIT = Duration.ofMillis(100);
 
     public static ServerConfig fromArgs(String[] args) {
         int port = DEFAULT_PORT;
-        String apiKey = System.getenv("MCP_API_KEY");
 
         for (int i = 0; i < args.length; i++) {
             if ("--port".equals(args[i]) && i + 1 < args.length) {
@@ -23,10 +68,160 @@ public record ServerConfig(
             }
         }
 
-        return new ServerConfig(port, apiKey, DEFAULT_BACKLOG);
+        int maxSessions = intArg(args, "--max-sessions=", DEFAULT_MAX_SESSIONS);
+        int idleSeconds = intArg(args, "--session-idle=", (int) DEFAULT_SESSION_IDLE_TIMEOUT.toSeconds());
+
+        int backlog = intArg(args, "--backlog=", DEFAULT_BACKLOG);
+        int acceptors = intArg(args, "--acceptors=", DEFAULT_ACCEPTOR_THREADS);
+        int selectors = intArg(args, "--selectors=", Runtime.getRuntime().availableProcessors());
+        int keepAliveSeconds = intArg(args, "--keep-alive=", (int) DEFAULT_KEEP_ALIVE_TIMEOUT.toSeconds());
+
+        int admissionQueue = intArg(args, "--queue=", DEFAULT_ADMISSION_QUEUE);
+        int admissionWaitMillis = intArg(args, "--queue-wait=", (int) DEFAULT_ADMISSION_WAIT.toMillis());
+
+        int maxBodyBytes = intArg(args, "--max-body=", DEFAULT_MAX_BODY_BYTES);
+        int readTimeoutSeconds = intArg(args, "--read-timeout=", (int) DEFAULT_BODY_READ_TIMEOUT.toSeconds());
+        int maxBufferedBytes = intArg(args, "--max-buffered=", DEFAULT_MAX_BUFFERED_BYTES);
+        int compressMinBytes = intArg(args, "--compress-min=", DEFAULT_COMPRESS_MIN_BYTES);
+
+        int maxInFlight = intArg(args, "--max-in-flight=", DEFAULT_MAX_IN_FLIGHT);
+        int maxMessageBytes = intArg(args, "--max-message=", DEFAULT_MAX_MESSAGE_BYTES);
+
+        double rate = Math.max(0, doubleArg(args, "--rate-limit=", DEFAULT_RATE_LIMIT));
+        int burst = intArg(args, "--rate-burst=", DEFAULT_RATE_BURST);
+        // The single key is often shared by every client behind a proxy, so it is only limited on request
+        double singleKeyRate = hasArg(args, "--rate-limit=") ? rate : 0;
+        List<ApiKey> apiKeys = apiKeys(System.getenv("MCP_API_KEY"), singleKeyRate, System.getenv("MCP_API_KEYS"), rate, burst);
+
+        return new ServerConfig(port, apiKeys, backlog, Math.max(1, maxSessions), Duration.ofSeconds(idleSeconds),
+            methodTimeouts(args), engine(args), Math.max(1, acceptors), Math.max(1, selectors),
+            Duration.ofSeconds(keepAliveSeconds), concurrencyLimits(args), Math.max(0, admissionQueue),
+            Duration.ofMillis(Math.max(0, admissionWaitMillis)), Math.max(1, maxBodyBytes),
+            Duration.ofSeconds(Math.max(1, readTimeoutSeconds)), Math.max(1, maxBufferedBytes),
+            Math.max(0, compressMinBytes), Math.max(1, maxInFlight), Math.max(1024, maxMessageBytes));
+    }
+
+    /**
+     * Only the options STDIO mode uses: method timeouts, concurrency limits and the STDIO limits.
+     * HTTP settings keep their defaults, so a value that only matters there, such as a malformed
+     * {@code MCP_API_KEYS} or {@code --engine}, cannot stop a STDIO launch.
+     */
+    public static ServerConfig stdioFromArgs(String[] args) {
+        int admissionQueue = intArg(args, "--queue=", DEFAULT_ADMISSION_QUEUE);
+        int admissionWaitMillis = intArg(args, "--queue-wait=", (int) DEFAULT_ADMISSION_WAIT.toMillis());
+        int maxInFlight = intArg(args, "--max-in-flight=", DEFAULT_MAX_IN_FLIGHT);
+        int maxMessageBytes = intArg(args, "--max-message=", DEFAULT_MAX_MESSAGE_BYTES);
+
+        return new ServerConfig(DEFAULT_PORT, List.of(), DEFAULT_BACKLOG, DEFAULT_MAX_SESSIONS,
+            DEFAULT_SESSION_IDLE_TIMEOUT, methodTimeouts(args), EngineType.JDK, DEFAULT_ACCEPTOR_THREADS,
+            Runtime.getRuntime().availableProcessors(), DEFAULT_KEEP_ALIVE_TIMEOUT, concurrencyLimits(args),
+            Math.max(0, admissionQueue), Duration.ofMillis(Math.max(0, admissionWaitMillis)), DEFAULT_MAX_BODY_BYTES,
+            DEFAULT_BODY_READ_TIMEOUT, DEFAULT_MAX_BUFFERED_BYTES, DEFAULT_COMPRESS_MIN_BYTES,
+            Math.max(1, maxInFlight), Math.max(1024, maxMessageBytes));
+    }
+
+    private static EngineType engine(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                return EngineType.valueOf(arg.substring("--engine=".length()).trim().toUpperCase());
+            }
+        }
+        return EngineType.JDK;
+    }
+
+    /**
+     * Method timeouts from {@code --timeout=<method>:<seconds>} arguments over the defaults.
+     */
+    private static Map<String, Duration> methodTimeouts(String[] args) {
+        Map<String, Duration> timeouts = new HashMap<>(DEFAULT_METHOD_TIMEOUTS);
+        for (String arg : args) {
+            if (arg.startsWith("--timeout=")) {
+                String value = arg.substring("--timeout=".length());
+                int colon = value.lastIndexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Expected --timeout=<method>:<seconds>, got " + arg);
+                }
+                timeouts.put(value.substring(0, colon), Duration.ofSeconds(Integer.parseInt(value.substring(colon + 1))));
+            }
+        }
+        return Map.copyOf(timeouts);
+    }
+
+    /**
+     * Concurrency limits from {@code --limit=<method or tool>:<n>} arguments over the defaults;
+     * a limit of 0 removes the default.
+     */
+    private static Map<String, Integer> concurrencyLimits(String[] args) {
+        Map<String, Integer> limits = new HashMap<>(DEFAULT_CONCURRENCY_LIMITS);
+        for (String arg : args) {
+            if (arg.startsWith("--limit=")) {
+                String value = arg.substring("--limit=".length());
+                int colon = value.lastIndexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Expected --limit=<method or tool>:<n>, got " + arg);
+                }
+                int limit = Integer.parseInt(value.substring(colon + 1));
+                if (limit > 0) {
+                    limits.put(value.substring(0, colon), limit);
+                } else {
+                    limits.remove(value.substring(0, colon));
+                }
+            }
+        }
+        return Map.copyOf(limits);
+    }
+
+    /**
+     * {@code MCP_API_KEY} as client "default" with its own rate, plus {@code MCP_API_KEYS}: comma-separated
+     * {@code <name>:<key>[:<rate per second>[:<burst>]]} entries. Keys without a rate get the default one.
+     */
+    static List<ApiKey> apiKeys(String singleKey, double singleKeyRate, String keyList, double rate, int burst) {
+        List<ApiKey> apiKeys = new ArrayList<>();
+        if (singleKey != null && !singleKey.isBlank()) {
+            apiKeys.add(new ApiKey("default", singleKey.trim(), singleKeyRate, burst));
+        }
+        if (keyList != null && !keyList.isBlank()) {
+            for (String entry : keyList.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length < 2 || parts.length > 4 || parts[0].isBlank() || parts[1].isBlank()) {
+                    throw new IllegalArgumentException("Expected MCP_API_KEYS entries <name>:<key>[:<rate>[:<burst>]]");
+                }
+                double keyRate = parts.length > 2 ? Double.parseDouble(parts[2]) : rate;
+                int keyBurst = parts.length > 3 ? Integer.parseInt(parts[3]) : burst;
+                apiKeys.add(new ApiKey(parts[0], parts[1], Math.max(0, keyRate), Math.max(1, keyBurst)));
+            }
+        }
+        return List.copyOf(apiKeys);
     }
 
     public boolean hasApiKey() {
-        return apiKey != null && !apiKey.isBlank();
+        return !apiKeys.isEmpty();
+    }
+
+    private static boolean hasArg(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double doubleArg(String[] args, String prefix, double defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Double.parseDouble(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
     }
 }
@@ -0,0 +1,72 @@
+package com.wiley.uaxd.mcp.server.entity;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+
+/**
+ * A Streamable HTTP session, created by initialize and addressed by the Mcp-Session-Id header.
+ * Keeps when it was last used and, while the client listens, its server-to-client stream.
+ */
+public final class Session {
+
+    private final String id;
+    private volatile long lastAccess;
+    private volatile Stream stream;
+
+    /**
+     * Server-to-client event stream opened with GET.
+     */
+    public interface Stream extends AutoCloseable {
+        void send(JsonWritable message);
+
+        @Override
+        void close();
+    }
+
+    public Session(String id, long now) {
+        this.id = id;
+        this.lastAccess = now;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public long lastAccess() {
+        return lastAccess;
+    }
+
+    public void touch(long now) {
+        lastAccess = now;
+    }
+
+    /**
+     * The open server-to-client stream, or null.
+     */
+    public Stream stream() {
+        return stream;
+    }
+
+    /**
+     * Attaches a new stream; a previous one is closed, as only one may be open per session.
+     */
+    public void attach(Stream next) {
+        Stream previous;
+        synchronized (this) {
+            previous = stream;
+            stream = next;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public synchronized void detach(Stream current) {
+        if (stream == current) {
+            stream = null;
+        }
+    }
+
+    public void close() {
+        attach(null);
+    }
+}
@@ -0,0 +1,165 @@
+package com.wiley.uaxd.mcp.tools.boundary;
+
+import com.wiley.uaxd.mcp.http.entity.Deadline;
+import com.wiley.uaxd.mcp.jsonrpc.entity.EncodedResult;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import com.wiley.uaxd.mcp.router.boundary.MethodHandler;
+import com.wiley.uaxd.mcp.router.boundary.RequestHandler;
+import com.wiley.uaxd.mcp.router.entity.Capability;
+import com.wiley.uaxd.mcp.router.entity.MCPRequest;
+import com.wiley.uaxd.mcp.tools.control.ToolInstance;
+import com.wiley.uaxd.mcp.tools.control.ToolRegistry;
+import com.wiley.uaxd.mcp.tools.entity.ToolContext;
+import com.wiley.uaxd.mcp.tools.entity.ToolResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Handles MCP tools/list and tools/call methods.
+ * The tools/list result is encoded whenever the tool set is set, not per request.
+ * Calls are guarded by the circuit breakers of the service registry, if one is given,
+ * and run within the request's deadline; a call that runs out of time gets a timeout result
+ * and does not count against the circuit breaker, as the budget may have been the client's.
+ * Neither does a call that was cancelled or interrupted: only upstream errors open the breaker.
+ */
+public class ToolsProtocol implements RequestHandler {
+
+    private final ServiceRegistry serviceRegistry;
+    private volatile Catalog catalog;
+
+    /** The tool set with its encoded tools/list result, swapped as a whole */
+    private record Catalog(ToolRegistry tools, EncodedResult toolsList) {}
+
+    /** How a tool call ended; only {@code FAILED} counts against the circuit breaker */
+    private enum Outcome { SUCCEEDED, FAILED, TIMED_OUT, CANCELLED }
+
+    public ToolsProtocol(ToolRegistry tools, ServiceRegistry serviceRegistry) {
+        this.serviceRegistry = serviceRegistry;
+        setTools(tools);
+    }
+
+    /**
+     * Replaces the tool set and re-encodes the tools/list result.
+     */
+    public void setTools(ToolRegistry tools) {
+        List<ToolInstance> toolList = tools.all();
+        EncodedResult encoded = EncodedResult.of(writer -> {
+            writer.beginObject().name("tools").beginArray();
+            for (ToolInstance tool : toolList) {
+                tool.spec().writeTo(writer);
+            }
+            writer.endArray().endObject();
+        });
+        this.catalog = new Catalog(tools, encoded);
+        Log.info(() -> "Encoded tools/list for " + toolList.size() + " tools (" + encoded.json().length + " bytes)");
+    }
+
+    @Override
+    public Map<String, MethodHandler> methods() {
+        return Map.of(
+            "tools/list", this::handleListTools,
+            "tools/call", this::handleCallTool
+        );
+    }
+
+    private JsonWritable handleListTools(MCPRequest request, Consumer<JsonWritable> notifications) {
+        Log.info("Handling tools/list request");
+        return catalog.toolsList().response(request.id());
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonWritable handleCallTool(MCPRequest request, Consumer<JsonWritable> notifications) {
+        Log.info("Handling tools/call request");
+
+        Object id = request.id();
+        Map<String, Object> params = request.params();
+        if (params == null) {
+            return JsonRPCResponses.error(id, -32602, "Invalid params: Missing params");
+        }
+
+        String toolName = (String) params.get("name");
+        if (toolName == null || toolName.isBlank()) {
+            return JsonRPCResponses.error(id, -32602, "Invalid params: Missing tool name");
+        }
+
+        Map<String, Object> arguments = (Map<String, Object>) params.get("arguments");
+        if (arguments == null) {
+            arguments = Map.of();
+        }
+
+        Optional<ToolInstance> toolOpt = catalog.tools().find(toolName);
+        if (toolOpt.isEmpty()) {
+            return JsonRPCResponses.error(id, -32601, "Tool not found: " + toolName);
+        }
+
+        ToolInstance tool = toolOpt.get();
+
+        // Check service availability via circuit breaker
+        if (serviceRegistry != null && !serviceRegistry.isServiceAvailable(toolName)) {
+            ToolResult unavailableResult = ToolResult.error(
+                "Service temporarily unavailable. This tool requires VPN access to internal Wiley services. " +
+                "The service will be retried automatically when connectivity is restored."
+            );
+            return JsonRPCResponses.success(id, unavailableResult);
+        }
+
+        ToolContext context = ToolContext.of(params, notifications, Deadline.current());
+        ToolResult result;
+        try {
+            result = ToolResult.of(tool.execute(arguments, context));
+        } catch (Deadline.ExceededException e) {
+            // Not left to the Dispatcher, so a tools/call timeout always comes back as a tool result
+            return timedOut(id, toolName, context.deadline());
+        }
+        switch (outcomeOf(result, context)) {
+            case TIMED_OUT -> {
+                return timedOut(id, toolName, context.deadline());
+            }
+            case CANCELLED -> Log.info(() -> "Tool call cancelled: " + toolName);
+            // Track failures for circuit breaker
+            case FAILED -> {
+                if (serviceRegistry != null) {
+                    serviceRegistry.recordFailure(toolName);
+                }
+            }
+            case SUCCEEDED -> {
+                if (serviceRegistry != null) {
+                    serviceRegistry.recordSuccess(toolName);
+                }
+            }
+        }
+
+        return JsonRPCResponses.success(id, result);
+    }
+
+    private static JsonWritable timedOut(Object id, String toolName, Deadline deadline) {
+        String message = "Request timed out: " + toolName + " did not complete within "
+            + deadline.timeout().toMillis() + " ms";
+        Log.info(message);
+        return JsonRPCResponses.success(id, ToolResult.error(message));
+    }
+
+    /**
+     * Cancellation interrupts the calling thread, and tools keep the interrupt when they give up.
+     */
+    private static Outcome outcomeOf(ToolResult result, ToolContext context) {
+        if (!result.isError()) {
+            return Outcome.SUCCEEDED;
+        }
+        if (context.deadline().isExpired()) {
+            return Outcome.TIMED_OUT;
+        }
+        return Thread.currentThread().isInterrupted() ? Outcome.CANCELLED : Outcome.FAILED;
+    }
+
+    @Override
+    public Optional<Capability> capability() {
+        return Optional.of(Capability.of("tools", true));
+    }
+}
@@ -3,6 +3,7 @@ package com.wiley.uaxd.mcp.tools.control;
 import com.wiley.uaxd.mcp.auth.boundary.TokenManager;
 import com.wiley.uaxd.mcp.http.control.HttpClientWrapper;
 import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.tools.entity.ToolContext;
 
 import java.net.http.HttpResponse;
 import java.util.Map;
@@ -47,6 +48,12 @@ public class GetRexArticles implements Function<Map<String, Object>, Map<String,
 
         try {
             return fetchArticles(userId, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of(
+                "content", "Fetching Rex articles was cancelled",
+                "error", "true"
+            );
         } catch (Exception e) {
             Log.error("GetRexArticles failed", e);
             return Map.of(
@@ -57,10 +64,12 @@ public class GetRexArticles implements Function<Map<String, Object>, Map<String,
     }
 
     private Map<String, String> fetchArticles(String userId, boolean isRetry) throws Exception {
+        UpstreamProgress progress = new UpstreamProgress(ToolContext.current().progress());
         String token = tokenManager.getOAuthToken(TOKEN_URL, CLIENT_ID, CLIENT_SECRET);
+        progress.tokenAcquired();
         String url = String.format(API_URL_TEMPLATE, TENANT_ID, userId);
 
-        HttpResponse<String> response = httpClient.get(url,
+        HttpResponse<String> response = httpClient.get(url, progress.listener(),
             "Authorization", "Bearer " + token
         );
 
@@ -3,6 +3,7 @@ package com.wiley.uaxd.mcp.tools.control;
 import com.wiley.uaxd.mcp.auth.boundary.TokenManager;
 import com.wiley.uaxd.mcp.http.control.HttpClientWrapper;
 import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.tools.entity.ToolContext;
 
 import java.net.http.HttpResponse;
 import java.util.Map;
@@ -42,6 +43,12 @@ public class GetUAXDArticles implements Function<Map<String, Object>, Map<String
 
         try {
             return fetchArticles(userId, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of(
+                "content", "Fetching UAXD articles was cancelled",
+                "error", "true"
+            );
         } catch (Exception e) {
             Log.error("GetUAXDArticles failed", e);
             return Map.of(
@@ -52,10 +59,12 @@ public class GetUAXDArticles implements Function<Map<String, Object>, Map<String
     }
 
     private Map<String, String> fetchArticles(String userId, boolean isRetry) throws Exception {
+        UpstreamProgress progress = new UpstreamProgress(ToolContext.current().progress());
         String token = tokenManager.getWppToken();
+        progress.tokenAcquired();
         String url = API_URL + "?userId=" + userId;
 
-        HttpResponse<String> response = httpClient.get(url,
+        HttpResponse<String> response = httpClient.get(url, progress.listener(),
             "X-WPP-AUTH-TOKEN", token
         );
 
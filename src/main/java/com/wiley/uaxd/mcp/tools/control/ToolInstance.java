@@ -1,6 +1,7 @@
 package com.wiley.uaxd.mcp.tools.control;
 
 import com.wiley.uaxd.mcp.log.boundary.Log;
+import com.wiley.uaxd.mcp.tools.entity.ToolContext;
 import com.wiley.uaxd.mcp.tools.entity.ToolSpec;
 
 import java.lang.reflect.Field;
@@ -36,11 +37,29 @@ public record ToolInstance(
     }
 
     public Map<String, String> execute(Map<String, Object> params) {
-        Log.info("Executing tool: " + spec.name());
+        return execute(params, ToolContext.NONE);
+    }
+
+    /**
+     * Runs the tool with the context available through {@link ToolContext#current()}.
+     */
+    public Map<String, String> execute(Map<String, Object> params, ToolContext context) {
+        if (context == ToolContext.NONE) {
+            return apply(params);
+        }
+        return ToolContext.callWith(context, () -> apply(params));
+    }
+
+    private Map<String, String> apply(Map<String, Object> params) {
+        Log.info(() -> "Executing tool: " + spec.name());
         try {
             return tool.apply(params);
         } catch (Exception e) {
-            Log.error("Tool execution failed: " + spec.name(), e);
+            if (e instanceof InterruptedException) {
+                // Kept, so the caller can tell a cancelled call from a failed one
+                Thread.currentThread().interrupt();
+            }
+            Log.error(() -> "Tool execution failed: " + spec.name() + " - " + e.getMessage());
             return Map.of(
                 "content", "Error executing tool: " + e.getMessage(),
                 "error", "true"
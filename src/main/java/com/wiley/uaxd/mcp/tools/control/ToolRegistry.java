@@ -0,0 +1,49 @@
+package com.wiley.uaxd.mcp.tools.control;
+
+import com.wiley.uaxd.mcp.log.boundary.Log;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The registered tools, in discovery order, with lookup by name.
+ */
+public class ToolRegistry {
+
+    private final List<ToolInstance> tools;
+    private final Map<String, ToolInstance> byName;
+
+    public ToolRegistry(List<ToolInstance> tools) {
+        this.tools = List.copyOf(tools);
+        Map<String, ToolInstance> index = new LinkedHashMap<>();
+        for (ToolInstance tool : this.tools) {
+            if (index.putIfAbsent(tool.name(), tool) != null) {
+                Log.error("Duplicate tool name ignored: " + tool.name());
+            }
+        }
+        this.byName = Map.copyOf(index);
+    }
+
+    /**
+     * Discovers the tools via {@link ToolLocator}.
+     */
+    public static ToolRegistry load() {
+        ToolRegistry registry = new ToolRegistry(ToolLocator.all());
+        Log.info("Loaded " + registry.size() + " tools");
+        return registry;
+    }
+
+    public List<ToolInstance> all() {
+        return tools;
+    }
+
+    public Optional<ToolInstance> find(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+
+    public int size() {
+        return tools.size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.wiley.uaxd.mcp.tools.control;
+
+import com.wiley.uaxd.mcp.http.control.HttpClientWrapper;
+import com.wiley.uaxd.mcp.tools.entity.ProgressReporter;
+
+/**
+ * Turns the stages of an upstream fetch into progress reports:
+ * 1 = token acquired, 2 = upstream connected, then 2 + bytes received.
+ * Body progress is reported at most every {@value #REPORT_EVERY_BYTES} bytes.
+ */
+public class UpstreamProgress implements HttpClientWrapper.Listener {
+
+    static final long REPORT_EVERY_BYTES = 64 * 1024;
+
+    private final ProgressReporter reporter;
+    private long lastReported;
+
+    public UpstreamProgress(ProgressReporter reporter) {
+        this.reporter = reporter;
+    }
+
+    /**
+     * Listener for the upstream call; without a progress token the body is not counted at all.
+     */
+    public HttpClientWrapper.Listener listener() {
+        return reporter == ProgressReporter.NONE ? HttpClientWrapper.Listener.NONE : this;
+    }
+
+    public void tokenAcquired() {
+        reporter.report(1, 0, "Token acquired");
+    }
+
+    @Override
+    public void connected(int statusCode, long contentLength) {
+        lastReported = 0;
+        reporter.report(2, total(contentLength), "Upstream connected (HTTP " + statusCode + ")");
+    }
+
+    @Override
+    public void received(long bytes, long contentLength) {
+        if (bytes - lastReported < REPORT_EVERY_BYTES && bytes != contentLength) {
+            return;
+        }
+        lastReported = bytes;
+        reporter.report(2 + bytes, total(contentLength), "Received " + bytes + " bytes");
+    }
+
+    private static long total(long contentLength) {
+        return contentLength >= 0 ? 2 + contentLength : 0;
+    }
+}
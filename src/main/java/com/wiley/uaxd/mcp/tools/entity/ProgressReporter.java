@@ -0,0 +1,62 @@
+package com.wiley.uaxd.mcp.tools.entity;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonRPCResponses;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Receives progress of a running tool call. A total of 0 means unknown.
+ */
+@FunctionalInterface
+public interface ProgressReporter {
+
+    String NOTIFICATION = "notifications/progress";
+
+    ProgressReporter NONE = (progress, total, message) -> {};
+
+    void report(long progress, long total, String message);
+
+    /**
+     * Returns the {@code _meta.progressToken} of tools/call params, or null if the client did not ask for progress.
+     */
+    static Object progressToken(Map<String, Object> params) {
+        if (params != null && params.get("_meta") instanceof Map<?, ?> meta) {
+            Object token = meta.get("progressToken");
+            return token instanceof String || token instanceof Number ? token : null;
+        }
+        return null;
+    }
+
+    /**
+     * Reports as MCP {@code notifications/progress} messages to the given transport.
+     * Progress must increase with every notification, so values that do not are dropped.
+     */
+    static ProgressReporter of(Object progressToken, Consumer<JsonWritable> transport) {
+        if (progressToken == null) {
+            return NONE;
+        }
+        long[] last = {Long.MIN_VALUE};
+        return (progress, total, message) -> {
+            synchronized (last) {
+                if (progress <= last[0]) {
+                    return;
+                }
+                last[0] = progress;
+                transport.accept(JsonRPCResponses.notification(NOTIFICATION, writer -> {
+                    writer.beginObject()
+                        .name("progressToken").id(progressToken)
+                        .name("progress").value(progress);
+                    if (total > 0) {
+                        writer.name("total").value(total);
+                    }
+                    if (message != null) {
+                        writer.name("message").value(message);
+                    }
+                    writer.endObject();
+                }));
+            }
+        };
+    }
+}
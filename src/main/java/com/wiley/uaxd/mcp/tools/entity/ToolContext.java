@@ -0,0 +1,44 @@
+package com.wiley.uaxd.mcp.tools.entity;
+
+import com.wiley.uaxd.mcp.http.entity.Deadline;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-call context of a tool. Tools keep their plain {@code Function} signature
+ * and look the context up with {@link #current()} while they run; the deadline
+ * is bound as well, so upstream calls see it through {@link Deadline#current()}.
+ */
+public record ToolContext(ProgressReporter progress, Deadline deadline) {
+
+    public static final ToolContext NONE = new ToolContext(ProgressReporter.NONE, Deadline.NONE);
+
+    private static final ScopedValue<ToolContext> CURRENT = ScopedValue.newInstance();
+
+    /**
+     * Context for a tools/call: progress goes to the transport if the params carry a progress token
+     * and a transport is given.
+     */
+    public static ToolContext of(Map<String, Object> params, Consumer<JsonWritable> transport, Deadline deadline) {
+        Object progressToken = transport != null ? ProgressReporter.progressToken(params) : null;
+        ProgressReporter progress = progressToken != null ? ProgressReporter.of(progressToken, transport) : ProgressReporter.NONE;
+        return progress == ProgressReporter.NONE && deadline.isNone() ? NONE : new ToolContext(progress, deadline);
+    }
+
+    /**
+     * Context of the tool call running on this thread, or {@link #NONE}.
+     */
+    public static ToolContext current() {
+        return CURRENT.isBound() ? CURRENT.get() : NONE;
+    }
+
+    /**
+     * Runs the action with the context and its deadline bound and returns its result.
+     */
+    public static <T> T callWith(ToolContext context, Supplier<T> action) {
+        return ScopedValue.where(CURRENT, context).call(() -> Deadline.callWith(context.deadline(), action));
+    }
+}
@@ -0,0 +1,35 @@
+package com.wiley.uaxd.mcp.tools.entity;
+
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
+
+import java.util.Map;
+
+/**
+ * Result of a tools/call: a single text content block, optionally flagged as an error.
+ */
+public record ToolResult(String content, boolean isError) implements JsonWritable {
+
+    public static ToolResult of(Map<String, String> result) {
+        return new ToolResult(result.getOrDefault("content", ""), "true".equals(result.get("error")));
+    }
+
+    public static ToolResult error(String content) {
+        return new ToolResult(content, true);
+    }
+
+    @Override
+    public void writeTo(JsonWriter writer) {
+        writer.beginObject()
+            .name("content").beginArray()
+                .beginObject()
+                    .name("type").value("text")
+                    .name("text").value(content != null ? content : "")
+                .endObject()
+            .endArray();
+        if (isError) {
+            writer.name("isError").value(true);
+        }
+        writer.endObject();
+    }
+}
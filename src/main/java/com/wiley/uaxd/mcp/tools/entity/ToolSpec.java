@@ -1,11 +1,14 @@
 package com.wiley.uaxd.mcp.tools.entity;
 
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWritable;
+import com.wiley.uaxd.mcp.jsonrpc.entity.JsonWriter;
+
 import java.util.Map;
 
 /**
  * Tool specification with name, description, and input schema.
  */
-public record ToolSpec(String name, String description, String inputSchema) {
+public record ToolSpec(String name, String description, String inputSchema) implements JsonWritable {
 
     public static final String DEFAULT_SCHEMA =
         "{\"type\":\"object\",\"properties\":{\"input\":{\"type\":\"string\"}},\"required\":[\"input\"]}";
@@ -22,17 +25,16 @@ public record ToolSpec(String name, String description, String inputSchema) {
         );
     }
 
-    public String toJson() {
-        return String.format("{\"name\":\"%s\",\"description\":\"%s\",\"inputSchema\":%s}",
-            escapeJson(name), escapeJson(description), inputSchema);
+    @Override
+    public void writeTo(JsonWriter writer) {
+        writer.beginObject()
+            .name("name").value(name != null ? name : "")
+            .name("description").value(description != null ? description : "")
+            .name("inputSchema").rawValue(inputSchema)
+            .endObject();
     }
 
-    private static String escapeJson(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+    public String toJson() {
+        return JsonWriter.toString(this);
     }
 }
@@ -0,0 +1,34 @@
+package com.wiley.uaxd.mcp;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated by the calling thread.
+ */
+public interface AllocationMeter {
+
+    int WARMUP = 5_000;
+    int ITERATIONS = 1_000;
+
+    static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()
+            && bean.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Runs the action until it is JIT-compiled, then returns the average bytes allocated per call.
+     */
+    static long bytesPerCall(Runnable action) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        long before = bean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        long after = bean.getCurrentThreadAllocatedBytes();
+        return (after - before) / ITERATIONS;
+    }
+}
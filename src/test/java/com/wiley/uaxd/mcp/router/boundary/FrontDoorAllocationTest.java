@@ -0,0 +1,75 @@
+package com.wiley.uaxd.mcp.router.boundary;
+
+import com.wiley.uaxd.mcp.AllocationMeter;
+import com.wiley.uaxd.mcp.App;
+import com.wiley.uaxd.mcp.base.control.MessageSender;
+import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per STDIO request by FrontDoor dispatch, including logging and response encoding.
+ */
+class FrontDoorAllocationTest {
+
+    /** Bytes per request, about 1.5x the measured figure; lower them when an optimization lands */
+    static final long INITIALIZE_BUDGET = 4_096;
+    static final long TOOLS_LIST_BUDGET = 7_168;
+    static final long TOOLS_CALL_BUDGET = 20_480;
+
+    final ByteArrayOutputStream stdout = new ByteArrayOutputStream(64 * 1024);
+    FrontDoor frontDoor;
+
+    @BeforeAll
+    static void requireAllocationCounters() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters not available");
+    }
+
+    @BeforeEach
+    void setUp() {
+        MessageSender sender = new MessageSender(new PrintStream(stdout, false, StandardCharsets.UTF_8));
+        frontDoor = new FrontDoor(sender, App.dispatcher(new ServiceRegistry()));
+    }
+
+    @Test
+    void initialize() {
+        String line = """
+            {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"test","version":"1.0"}}}""";
+
+        assertThat(send(line)).contains("\"protocolVersion\":\"2024-11-05\"");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(line))).isLessThanOrEqualTo(INITIALIZE_BUDGET);
+    }
+
+    @Test
+    void toolsList() {
+        String line = """
+            {"jsonrpc":"2.0","id":2,"method":"tools/list"}""";
+
+        assertThat(send(line)).contains("\"name\":\"StubTool\"");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(line))).isLessThanOrEqualTo(TOOLS_LIST_BUDGET);
+    }
+
+    @Test
+    void toolsCall() {
+        String line = """
+            {"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"StubTool","arguments":{"userId":"0000-1111"}}}""";
+
+        assertThat(send(line)).contains("10.1002/stub.19");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(line))).isLessThanOrEqualTo(TOOLS_CALL_BUDGET);
+    }
+
+    private String send(String line) {
+        stdout.reset();
+        frontDoor.processFrame(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return stdout.toString(StandardCharsets.UTF_8);
+    }
+}
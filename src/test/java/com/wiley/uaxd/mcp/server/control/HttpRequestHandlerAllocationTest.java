@@ -0,0 +1,101 @@
+package com.wiley.uaxd.mcp.server.control;
+
+import com.wiley.uaxd.mcp.AllocationMeter;
+import com.wiley.uaxd.mcp.App;
+import com.wiley.uaxd.mcp.reliability.boundary.ServiceRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per HTTP request by HttpRequestHandler, including logging and response encoding.
+ */
+class HttpRequestHandlerAllocationTest {
+
+    /** Bytes per request, about 1.5x the measured figure; lower them when an optimization lands */
+    static final long INITIALIZE_BUDGET = 6_656;
+    static final long TOOLS_LIST_BUDGET = 10_240;
+    static final long TOOLS_CALL_BUDGET = 24_576;
+    static final long NOT_MODIFIED_BUDGET = 2_048;
+
+    final HttpRequestHandler handler = new HttpRequestHandler(App.dispatcher(new ServiceRegistry()));
+    final StubExchange exchange = new StubExchange();
+
+    @BeforeAll
+    static void requireAllocationCounters() {
+        assumeTrue(AllocationMeter.isSupported(), "thread allocation counters not available");
+    }
+
+    @Test
+    void initialize() {
+        ByteBuffer request = request("""
+            {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"test","version":"1.0"}}}""");
+
+        assertThat(send(request)).contains("\"protocolVersion\":\"2024-11-05\"");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(request))).isLessThanOrEqualTo(INITIALIZE_BUDGET);
+    }
+
+    @Test
+    void toolsList() {
+        ByteBuffer request = request("""
+            {"jsonrpc":"2.0","id":2,"method":"tools/list"}""");
+
+        assertThat(send(request)).contains("\"name\":\"StubTool\"");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(request))).isLessThanOrEqualTo(TOOLS_LIST_BUDGET);
+    }
+
+    @Test
+    void toolsCall() {
+        ByteBuffer request = request("""
+            {"jsonrpc":"2.0","id":3,"method":"tools/call","params":{"name":"StubTool","arguments":{"userId":"0000-1111"}}}""");
+
+        assertThat(send(request)).contains("10.1002/stub.19");
+        assertThat(AllocationMeter.bytesPerCall(() -> send(request))).isLessThanOrEqualTo(TOOLS_CALL_BUDGET);
+    }
+
+    @Test
+    void toolsListNotModified() {
+        ByteBuffer request = request("""
+            {"jsonrpc":"2.0","id":2,"method":"tools/list"}""");
+        send(request);
+        String etag = exchange.getResponseHeaders().getFirst("ETag");
+        assertThat(etag).startsWith("W/\"");
+
+        exchange.getRequestHeaders().set("If-None-Match", etag);
+        assertThat(revalidate(request)).isEqualTo(304);
+        assertThat(exchange.responseBody()).isEmpty();
+        assertThat(AllocationMeter.bytesPerCall(() -> revalidate(request))).isLessThanOrEqualTo(NOT_MODIFIED_BUDGET);
+    }
+
+    private int revalidate(ByteBuffer request) {
+        exchange.reset();
+        try {
+            handler.handleRequest(exchange, request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return exchange.getResponseCode();
+    }
+
+    private String send(ByteBuffer request) {
+        exchange.reset();
+        try {
+            handler.handleRequest(exchange, request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        assertThat(exchange.getResponseCode()).isEqualTo(200);
+        return exchange.responseBody();
+    }
+
+    private static ByteBuffer request(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.wiley.uaxd.mcp.tools.control;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Test tool that answers with a fixed upstream-like JSON payload, without any network calls.
+ */
+public class StubTool implements Function<Map<String, Object>, Map<String, String>> {
+
+    public static final String NAME = "StubTool";
+
+    public static final Map<String, String> TOOL_SPEC = Map.of(
+        "name", NAME,
+        "description", "Returns a canned article list for tests.",
+        "inputSchema", "{\"type\":\"object\",\"properties\":{\"userId\":{\"type\":\"string\"}},\"required\":[\"userId\"]}"
+    );
+
+    /** Roughly 4 KB of JSON with quotes and newlines, so escaping is exercised */
+    static final String CONTENT = articles(20);
+
+    private static final Map<String, String> RESULT = Map.of("content", CONTENT);
+
+    @Override
+    public Map<String, String> apply(Map<String, Object> params) {
+        return RESULT;
+    }
+
+    private static String articles(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(",\n");
+            }
+            sb.append("{\"id\":").append(i)
+              .append(",\"title\":\"Article ").append(i).append(" on \\\"allocation\\\" budgets\"")
+              .append(",\"doi\":\"10.1002/stub.").append(i).append("\"")
+              .append(",\"abstract\":\"First line.\\nSecond line with\\ttab.\"}");
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -18,4 +18,4 @@ if ! command -v java &> /dev/null; then
 fi
 
 # Run the MCP server
-exec java --enable-preview -jar "${JAR_PATH}"
+exec java --enable-preview --add-modules jdk.incubator.vector -jar "${JAR_PATH}"